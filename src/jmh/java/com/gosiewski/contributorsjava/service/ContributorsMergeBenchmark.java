@@ -0,0 +1,90 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.gosiewski.contributorsjava.dto.outgoing.ContributorDto;
+import com.gosiewski.contributorsjava.service.domain.Contributor;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Compares merging contributors of the whole organization with the groupBy/reduceOption pipeline (the way it was done
+// before ContributionsAccumulator) against summing every repository into the accumulator.
+// The last two compare sorting everybody with selecting only the top of them.
+// Run with the "gc" profiler to see allocation rate next to the latency.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ContributorsMergeBenchmark {
+
+    @Param({"1000"})
+    private int repositories;
+
+    @Param({"150"})
+    private int contributorsPerRepository;
+
+    @Param({"20000"})
+    private int distinctLogins;
+
+    @Param({"100"})
+    private int limit;
+
+    private Seq<Seq<Contributor>> contributors;
+
+    private ContributionsAccumulator filledAccumulator;
+
+    @Setup
+    public void setUp() {
+        final var random = new Random(42);
+
+        contributors = List.range(0, repositories)
+                .map(repository -> List.range(0, contributorsPerRepository)
+                        .map(contributor -> new Contributor("login" + random.nextInt(distinctLogins),
+                                random.nextInt(500))));
+
+        filledAccumulator = new ContributionsAccumulator();
+        contributors.forEach(filledAccumulator::add);
+    }
+
+    @Benchmark
+    public Seq<ContributorDto> groupByMerge() {
+        return contributors
+                .flatMap(Function.identity())
+                .groupBy(Contributor::getLogin)
+                .values()
+                .flatMap(contributorContributions -> contributorContributions
+                        .reduceOption((contribution, otherContribution) -> new Contributor(contribution.getLogin(),
+                                contribution.getContributionsAmount() + otherContribution.getContributionsAmount())))
+                .sorted(Comparator.comparing(Contributor::getContributionsAmount).reversed())
+                .map(contributor -> new ContributorDto(contributor.getLogin(), contributor.getContributionsAmount()));
+    }
+
+    @Benchmark
+    public Seq<ContributorDto> accumulatorMerge() {
+        final var accumulator = new ContributionsAccumulator();
+
+        contributors.forEach(accumulator::add);
+
+        return accumulator.getSortedContributors();
+    }
+
+    @Benchmark
+    public Seq<ContributorDto> sortAllMerged() {
+        return filledAccumulator.getSortedContributors();
+    }
+
+    @Benchmark
+    public Seq<ContributorDto> selectTopMerged() {
+        return filledAccumulator.getTopContributors(limit);
+    }
+}
@@ -0,0 +1,52 @@
+package com.gosiewski.contributorsjava.service;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+
+import java.util.concurrent.TimeUnit;
+
+// Parsing of the Link header, done for every single page fetched from GitHub: following the "next" link alone
+// and deriving all the remaining pages up to "last" for the parallel pagination.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LinkHeaderBenchmark {
+
+    @Param({"34"})
+    private int lastPage;
+
+    private HttpHeaders headers;
+
+    private HttpClient httpClient;
+
+    @Setup
+    public void setUp() {
+        final var url = "https://api.github.com/repositories/1300192/contributors?per_page=100&page=";
+
+        headers = new HttpHeaders();
+        headers.add("Link", "<" + url + "2>; rel=\"next\", <" + url + lastPage + ">; rel=\"last\", " +
+                "<" + url + "1>; rel=\"first\", <" + url + "1>; rel=\"prev\"");
+
+        // The link helpers do not touch the transport, cache, scheduler nor the metrics
+        httpClient = new HttpClient(null, null, null, null, null, "", 0, 0, 0, null);
+    }
+
+    @Benchmark
+    public Option<String> nextPageLink() {
+        return httpClient.getNextPageLink(headers);
+    }
+
+    @Benchmark
+    public Option<Seq<String>> remainingPageLinks() {
+        return httpClient.getRemainingPageLinks(headers);
+    }
+}
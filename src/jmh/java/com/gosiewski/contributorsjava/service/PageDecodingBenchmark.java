@@ -0,0 +1,123 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gosiewski.contributorsjava.service.domain.Contributor;
+import com.gosiewski.contributorsjava.service.domain.Repository;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import io.vavr.jackson.datatype.VavrModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+// Compares binding a page of contributors (and of repositories) to DTOs with the ObjectMapper and mapping them
+// to the domain (the way it was done before PageDecoder) against decoding the page token by token.
+// Elements carry all the fields GitHub sends.
+// Run with the "gc" profiler to see allocation per page next to the latency.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageDecodingBenchmark {
+
+    @Param({"100"})
+    private int pageSize;
+
+    private byte[] page;
+
+    private byte[] repositoriesPage;
+
+    private ObjectMapper mapper;
+
+    @Setup
+    public void setUp() {
+        page = List.range(0, pageSize)
+                .map(i -> String.format("{\"login\":\"login%1$d\",\"id\":%1$d,\"node_id\":\"MDQ6VXNlcjE%1$d\"," +
+                        "\"avatar_url\":\"https://avatars.githubusercontent.com/u/%1$d?v=4\",\"gravatar_id\":\"\"," +
+                        "\"url\":\"https://api.github.com/users/login%1$d\"," +
+                        "\"html_url\":\"https://github.com/login%1$d\"," +
+                        "\"followers_url\":\"https://api.github.com/users/login%1$d/followers\"," +
+                        "\"following_url\":\"https://api.github.com/users/login%1$d/following{/other_user}\"," +
+                        "\"gists_url\":\"https://api.github.com/users/login%1$d/gists{/gist_id}\"," +
+                        "\"starred_url\":\"https://api.github.com/users/login%1$d/starred{/owner}{/repo}\"," +
+                        "\"subscriptions_url\":\"https://api.github.com/users/login%1$d/subscriptions\"," +
+                        "\"organizations_url\":\"https://api.github.com/users/login%1$d/orgs\"," +
+                        "\"repos_url\":\"https://api.github.com/users/login%1$d/repos\"," +
+                        "\"events_url\":\"https://api.github.com/users/login%1$d/events{/privacy}\"," +
+                        "\"received_events_url\":\"https://api.github.com/users/login%1$d/received_events\"," +
+                        "\"type\":\"User\",\"site_admin\":false,\"contributions\":%2$d}", i, 1000 - i))
+                .mkString("[", ",", "]")
+                .getBytes(StandardCharsets.UTF_8);
+
+        repositoriesPage = List.range(0, pageSize)
+                .map(i -> String.format("{\"id\":%1$d,\"node_id\":\"MDEwOlJlcG9zaXRvcnk%1$d\"," +
+                        "\"name\":\"repository%1$d\",\"full_name\":\"organization/repository%1$d\"," +
+                        "\"private\":false,\"owner\":{\"login\":\"organization\",\"id\":1," +
+                        "\"url\":\"https://api.github.com/users/organization\",\"type\":\"Organization\"}," +
+                        "\"html_url\":\"https://github.com/organization/repository%1$d\"," +
+                        "\"description\":\"Repository number %1$d\",\"fork\":false," +
+                        "\"url\":\"https://api.github.com/repos/organization/repository%1$d\"," +
+                        "\"created_at\":\"2015-01-01T10:15:30Z\",\"updated_at\":\"2020-02-02T10:15:30Z\"," +
+                        "\"pushed_at\":\"2020-02-01T10:15:30Z\",\"size\":%2$d,\"stargazers_count\":%2$d," +
+                        "\"language\":\"Java\",\"topics\":[\"java\",\"spring\"]," +
+                        "\"license\":{\"key\":\"mit\",\"name\":\"MIT License\"}," +
+                        "\"permissions\":{\"admin\":false,\"push\":false,\"pull\":true}}", i, 1000 - i))
+                .mkString("[", ",", "]")
+                .getBytes(StandardCharsets.UTF_8);
+
+        mapper = new ObjectMapper();
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        mapper.registerModule(new VavrModule());
+    }
+
+    @Benchmark
+    public List<Contributor> databindDecoding() throws IOException {
+        final List<GitHubContributorDto> dtos = mapper.readValue(page, new TypeReference<>() {});
+
+        return dtos.map(dto -> new Contributor(dto.login, dto.contributions));
+    }
+
+    @Benchmark
+    public List<Contributor> streamingDecoding() throws IOException {
+        return PageDecoder.CONTRIBUTORS.decode(page);
+    }
+
+    @Benchmark
+    public List<Repository> repositoriesDatabindDecoding() throws IOException {
+        final List<GitHubRepositoryDto> dtos = mapper.readValue(repositoriesPage, new TypeReference<>() {});
+
+        return dtos.map(dto -> new Repository(dto.name, Option.of(Instant.parse(dto.pushedAt)),
+                Option.of(Instant.parse(dto.updatedAt))));
+    }
+
+    @Benchmark
+    public List<Repository> repositoriesStreamingDecoding() throws IOException {
+        return PageDecoder.REPOSITORIES.decode(repositoriesPage);
+    }
+
+    // The DTOs the pages used to be bound to
+    public static class GitHubContributorDto {
+        public String login;
+        public int contributions;
+    }
+
+    public static class GitHubRepositoryDto {
+        public String name;
+        @JsonProperty("pushed_at")
+        public String pushedAt;
+        @JsonProperty("updated_at")
+        public String updatedAt;
+    }
+}
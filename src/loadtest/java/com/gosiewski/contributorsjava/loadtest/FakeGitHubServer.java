@@ -0,0 +1,226 @@
+package com.gosiewski.contributorsjava.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+// Local stand-in for the two GitHub endpoints the service uses. Every organization exists and has the configured
+// number of repositories. Contributors of a repository are a window of a shared pool of logins, so they overlap
+// between repositories like they do in real organizations, and are always the same for the same repository.
+// Pages come with GitHub-like Link headers, responses are delayed and some of them fail on purpose.
+public class FakeGitHubServer {
+    private final static Pattern REPOS_PATH = Pattern.compile("^/orgs/([^/]+)/repos$");
+    private final static Pattern CONTRIBUTORS_PATH = Pattern.compile("^/repos/([^/]+)/([^/]+)/contributors$");
+
+    private final static int DEFAULT_PAGE_SIZE = 30;
+
+    private final Settings settings;
+
+    private final HttpServer server;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    public FakeGitHubServer(final Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", settings.port), 0);
+        this.server.createContext("/", this::handle);
+        // Delayed responses sleep, so each of them needs its own thread
+        this.server.setExecutor(executor);
+    }
+
+    public final void start() {
+        server.start();
+    }
+
+    public final void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public final String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            delay();
+
+            if (ThreadLocalRandom.current().nextDouble() < settings.errorRate) {
+                respond(exchange, 500, "{\"message\":\"Injected failure\"}", null);
+                return;
+            }
+
+            final var uri = exchange.getRequestURI();
+            final var reposMatcher = REPOS_PATH.matcher(uri.getPath());
+            final var contributorsMatcher = CONTRIBUTORS_PATH.matcher(uri.getPath());
+
+            if (reposMatcher.matches()) {
+                respondWithPage(exchange, uri, settings.repositories, this::repositoryJson);
+            } else if (contributorsMatcher.matches()) {
+                final long seed = (contributorsMatcher.group(1) + "/" + contributorsMatcher.group(2)).hashCode();
+                final var firstLogin = new Random(seed).nextInt(settings.distinctContributors);
+
+                respondWithPage(exchange, uri, settings.contributorsPerRepository,
+                        index -> contributorJson((firstLogin + index) % settings.distinctContributors,
+                                new Random(seed + index).nextInt(1000) + 1));
+            } else {
+                respond(exchange, 404, "{\"message\":\"Not Found\"}", null);
+            }
+        }
+    }
+
+    private void respondWithPage(final HttpExchange exchange, final URI uri, final int total,
+                                 final ElementWriter elementWriter) throws IOException {
+        final var pageSize = queryParam(uri, "per_page", DEFAULT_PAGE_SIZE);
+        final var lastPage = Math.max(1, (total + pageSize - 1) / pageSize);
+        final var page = queryParam(uri, "page", 1);
+
+        final var body = new StringBuilder("[");
+        for (int index = (page - 1) * pageSize; index < Math.min(total, page * pageSize); index++) {
+            if (body.length() > 1) {
+                body.append(',');
+            }
+            body.append(elementWriter.write(index));
+        }
+        body.append(']');
+
+        respond(exchange, 200, body.toString(), linkHeader(uri, page, lastPage));
+    }
+
+    // Same shape as GitHub's: absolute URLs differing only by the page parameter
+    private String linkHeader(final URI uri, final int page, final int lastPage) {
+        if (lastPage == 1) {
+            return null;
+        }
+
+        final var pageUrl = getBaseUrl() + uri.getPath() + "?page=";
+        final var links = new StringBuilder();
+
+        if (page < lastPage) {
+            links.append("<").append(pageUrl).append(page + 1).append(">; rel=\"next\", ");
+            links.append("<").append(pageUrl).append(lastPage).append(">; rel=\"last\"");
+        }
+        if (page > 1) {
+            if (links.length() > 0) {
+                links.append(", ");
+            }
+            links.append("<").append(pageUrl).append(1).append(">; rel=\"first\", ");
+            links.append("<").append(pageUrl).append(page - 1).append(">; rel=\"prev\"");
+        }
+
+        return links.toString();
+    }
+
+    private void respond(final HttpExchange exchange, final int status, final String body,
+                         final String linkHeader) throws IOException {
+        final var bytes = body.getBytes(StandardCharsets.UTF_8);
+        final var headers = exchange.getResponseHeaders();
+
+        headers.set("Content-Type", "application/json; charset=utf-8");
+        // Plenty of budget, the pacing of the service is not what is measured here
+        headers.set("X-RateLimit-Limit", "1000000");
+        headers.set("X-RateLimit-Remaining", "1000000");
+        headers.set("X-RateLimit-Reset", Long.toString(Instant.now().plusSeconds(3600).getEpochSecond()));
+        if (linkHeader != null) {
+            headers.set("Link", linkHeader);
+        }
+
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private String repositoryJson(final int index) {
+        return String.format("{\"id\":%1$d,\"name\":\"repository%1$d\",\"full_name\":\"organization/repository%1$d\"," +
+                "\"private\":false,\"fork\":false,\"pushed_at\":\"2020-02-01T10:15:30Z\"," +
+                "\"updated_at\":\"2020-02-02T10:15:30Z\"}", index);
+    }
+
+    private String contributorJson(final int login, final int contributions) {
+        return String.format("{\"login\":\"user%1$d\",\"id\":%1$d,\"type\":\"User\",\"site_admin\":false," +
+                "\"contributions\":%2$d}", login, contributions);
+    }
+
+    private void delay() {
+        if (settings.latencyMillis <= 0) {
+            return;
+        }
+
+        // Up to 50% of jitter either way
+        final var jitter = settings.latencyMillis / 2;
+        final var millis = settings.latencyMillis - jitter + ThreadLocalRandom.current().nextLong(2 * jitter + 1);
+
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int queryParam(final URI uri, final String name, final int defaultValue) {
+        if (uri.getQuery() == null) {
+            return defaultValue;
+        }
+
+        for (final var param : uri.getQuery().split("&")) {
+            final var keyValue = param.split("=", 2);
+            if (keyValue.length == 2 && keyValue[0].equals(name)) {
+                return Integer.parseInt(keyValue[1]);
+            }
+        }
+
+        return defaultValue;
+    }
+
+    @FunctionalInterface
+    private interface ElementWriter {
+        String write(int index);
+    }
+
+    public static class Settings {
+        private final int port;
+        private final int repositories;
+        private final int contributorsPerRepository;
+        private final int distinctContributors;
+        private final long latencyMillis;
+        private final double errorRate;
+
+        public Settings(final int port, final int repositories, final int contributorsPerRepository,
+                        final int distinctContributors, final long latencyMillis, final double errorRate) {
+            this.port = port;
+            this.repositories = repositories;
+            this.contributorsPerRepository = contributorsPerRepository;
+            this.distinctContributors = distinctContributors;
+            this.latencyMillis = latencyMillis;
+            this.errorRate = errorRate;
+        }
+
+        // Read from "loadtest.*" system properties
+        public static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("loadtest.fakePort", 0),
+                    Integer.getInteger("loadtest.repositories", 200),
+                    Integer.getInteger("loadtest.contributorsPerRepository", 100),
+                    Integer.getInteger("loadtest.distinctContributors", 5000),
+                    Long.getLong("loadtest.latencyMillis", 50),
+                    Double.parseDouble(System.getProperty("loadtest.errorRate", "0.0")));
+        }
+    }
+
+    // Runs the stand-in alone, e.g. to point an already running service at it with --githubApiUrl
+    public static void main(final String[] args) throws IOException {
+        final var server = new FakeGitHubServer(Settings.fromSystemProperties());
+        server.start();
+
+        System.out.println("Fake GitHub API listening on " + server.getBaseUrl());
+    }
+}
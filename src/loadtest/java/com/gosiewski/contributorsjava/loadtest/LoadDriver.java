@@ -0,0 +1,136 @@
+package com.gosiewski.contributorsjava.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Closed-loop load: a fixed number of workers, each sending its next request as soon as the previous one completes.
+// Requests spread over a number of organizations, so both cached and freshly computed leaderboards are measured.
+public class LoadDriver {
+    private final String serviceUrl;
+
+    private final Settings settings;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    public LoadDriver(final String serviceUrl, final Settings settings) {
+        this.serviceUrl = serviceUrl;
+        this.settings = settings;
+    }
+
+    public final Report run() throws InterruptedException {
+        // Warm-up requests are not recorded, they let the JIT and the caches settle
+        send(settings.warmupRequests, new long[settings.warmupRequests], new AtomicInteger());
+
+        final var latencies = new long[settings.requests];
+        final var failures = new AtomicInteger();
+        final var started = System.nanoTime();
+
+        send(settings.requests, latencies, failures);
+
+        return new Report(latencies, failures.get(), System.nanoTime() - started);
+    }
+
+    private void send(final int requests, final long[] latencies, final AtomicInteger failures)
+            throws InterruptedException {
+        final var next = new AtomicInteger();
+        final ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency);
+
+        for (int worker = 0; worker < settings.concurrency; worker++) {
+            workers.execute(() -> {
+                for (var index = next.getAndIncrement(); index < requests; index = next.getAndIncrement()) {
+                    final var organization = "organization" + (index % settings.organizations);
+                    final var request = HttpRequest.newBuilder(URI.create(
+                            serviceUrl + "/org/" + organization + "/contributors"))
+                            .timeout(Duration.ofMinutes(5))
+                            .GET()
+                            .build();
+                    final var started = System.nanoTime();
+
+                    try {
+                        final var response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (final Exception ex) {
+                        failures.incrementAndGet();
+                    }
+
+                    latencies[index] = System.nanoTime() - started;
+                }
+            });
+        }
+
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.HOURS);
+    }
+
+    public static class Report {
+        private final long[] sortedLatencies;
+        private final int failures;
+        private final long elapsedNanos;
+
+        Report(final long[] latencies, final int failures, final long elapsedNanos) {
+            this.sortedLatencies = latencies.clone();
+            Arrays.sort(this.sortedLatencies);
+            this.failures = failures;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public final double getThroughput() {
+            return sortedLatencies.length / (elapsedNanos / 1e9);
+        }
+
+        public final double getPercentileMillis(final double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+
+            final var index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+
+        @Override
+        public final String toString() {
+            return String.format("requests: %d, failures: %d, throughput: %.1f req/s%n" +
+                            "latency p50: %.1f ms, p99: %.1f ms, p99.9: %.1f ms, max: %.1f ms",
+                    sortedLatencies.length, failures, getThroughput(),
+                    getPercentileMillis(50), getPercentileMillis(99), getPercentileMillis(99.9),
+                    getPercentileMillis(100));
+        }
+    }
+
+    public static class Settings {
+        private final int requests;
+        private final int warmupRequests;
+        private final int concurrency;
+        private final int organizations;
+
+        public Settings(final int requests, final int warmupRequests, final int concurrency,
+                        final int organizations) {
+            this.requests = requests;
+            this.warmupRequests = warmupRequests;
+            this.concurrency = concurrency;
+            this.organizations = organizations;
+        }
+
+        // Read from "loadtest.*" system properties
+        public static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("loadtest.requests", 2000),
+                    Integer.getInteger("loadtest.warmupRequests", 200),
+                    Integer.getInteger("loadtest.concurrency", 16),
+                    Integer.getInteger("loadtest.organizations", 20));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.gosiewski.contributorsjava.loadtest;
+
+import com.gosiewski.contributorsjava.ContributorsJavaApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+
+// End-to-end run: the fake GitHub, the service pointed at it and the load driver, all in one JVM.
+// Settings are "loadtest.*" system properties (see FakeGitHubServer.Settings and LoadDriver.Settings),
+// any other service property may be passed as an argument, e.g. --nonBlocking=true.
+public class LoadTest {
+
+    public static void main(final String[] args) throws Exception {
+        final var fakeGitHub = new FakeGitHubServer(FakeGitHubServer.Settings.fromSystemProperties());
+        fakeGitHub.start();
+
+        final var serviceArgs = new String[args.length + 3];
+        serviceArgs[0] = "--githubApiUrl=" + fakeGitHub.getBaseUrl();
+        serviceArgs[1] = "--server.port=0";
+        // Snapshots on disk would let later runs skip the upstream entirely
+        serviceArgs[2] = "--snapshotStoreDirectory=";
+        System.arraycopy(args, 0, serviceArgs, 3, args.length);
+
+        final var context = (WebServerApplicationContext) SpringApplication.run(ContributorsJavaApplication.class,
+                serviceArgs);
+
+        try {
+            final var serviceUrl = "http://localhost:" + context.getWebServer().getPort();
+            final var report = new LoadDriver(serviceUrl, LoadDriver.Settings.fromSystemProperties()).run();
+
+            System.out.println(report);
+        } finally {
+            SpringApplication.exit(context);
+            fakeGitHub.stop();
+        }
+    }
+}
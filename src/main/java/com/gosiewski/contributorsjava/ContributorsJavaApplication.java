@@ -7,19 +7,29 @@ import io.vavr.jackson.datatype.VavrModule;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 
 @SpringBootApplication
 public class ContributorsJavaApplication {
 
     @Bean
-    public RestTemplate restTemplate() {
-        RestTemplate rest = new RestTemplate();
+    public RestTemplate restTemplate(final ClientHttpRequestFactory requestFactory) {
+        RestTemplate rest = new RestTemplate(requestFactory);
         rest.getMessageConverters().add(0, mappingJacksonHttpMessageConverter());
         return rest;
     }
 
+    @Bean
+    public WebClient webClient(final WebClient.Builder builder) {
+        // Default limit of 256KB is too low for the biggest GitHub pages
+        return builder
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build();
+    }
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -0,0 +1,91 @@
+package com.gosiewski.contributorsjava;
+
+import com.gosiewski.contributorsjava.service.ConnectionPool;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+// Transports used to reach GitHub. Both keep a pool of persistent connections, ask for gzipped responses
+// and give up on unresponsive calls instead of holding a thread (or a connection) forever.
+// Replacing the ClientHttpRequestFactory or ClientHttpConnector bean plugs in a different transport.
+@Configuration
+public class HttpTransportConfiguration {
+    private final static String READ_TIMEOUT_HANDLER_NAME = "githubReadTimeout";
+    private final static String WRITE_TIMEOUT_HANDLER_NAME = "githubWriteTimeout";
+
+    @Bean
+    public CloseableHttpClient pooledHttpClient(
+            final ConnectionPool connectionPool,
+            @Value("${httpConnectTimeoutMillis}") final int connectTimeoutMillis,
+            @Value("${httpReadTimeoutMillis}") final int readTimeoutMillis,
+            @Value("${httpIdleConnectionTimeoutSeconds}") final long idleTimeoutSeconds) {
+        final var requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMillis)
+                .setSocketTimeout(readTimeoutMillis)
+                // Waiting for a free connection of the pool
+                .setConnectionRequestTimeout(connectTimeoutMillis)
+                .build();
+
+        // Content compression is on by default: "Accept-Encoding: gzip,deflate" is sent and responses are inflated
+        return HttpClients.custom()
+                .setConnectionManager(connectionPool.getConnectionManager())
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(idleTimeoutSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory clientHttpRequestFactory(final CloseableHttpClient pooledHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(pooledHttpClient);
+    }
+
+    // Picked up by the WebClient.Builder, so the reactive client shares the same settings
+    @Bean
+    public ClientHttpConnector clientHttpConnector(@Value("${httpMaxConnections}") final int maxConnections,
+                                                   @Value("${httpConnectTimeoutMillis}") final int connectTimeoutMillis,
+                                                   @Value("${httpReadTimeoutMillis}") final int readTimeoutMillis,
+                                                   @Value("${http2Enabled}") final boolean http2Enabled,
+                                                   @Value("${githubApiUrl}") final String gitHubApiUrl) {
+        final var connectionProvider = ConnectionProvider.fixed("github", maxConnections, connectTimeoutMillis);
+
+        // HTTP/2 multiplexes all the concurrent calls over a few connections, HTTP/1.1 stays as the fallback.
+        // It is negotiated during the TLS handshake, so a plain HTTP upstream (e.g. a local stand-in) keeps HTTP/1.1.
+        final var protocols = http2Enabled && gitHubApiUrl.startsWith("https://")
+                ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                : new HttpProtocol[]{HttpProtocol.HTTP11};
+
+        // The timeouts watch a call only while it is in flight. Added once per connection, they would also fire on
+        // connections idling in the pool and close them for nothing.
+        final var httpClient = HttpClient.create(connectionProvider)
+                .protocol(protocols)
+                .compress(true)
+                .tcpConfiguration(tcpClient -> tcpClient
+                        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis))
+                .doOnRequest((request, connection) -> connection
+                        .addHandlerLast(READ_TIMEOUT_HANDLER_NAME,
+                                new ReadTimeoutHandler(readTimeoutMillis, TimeUnit.MILLISECONDS))
+                        .addHandlerLast(WRITE_TIMEOUT_HANDLER_NAME,
+                                new WriteTimeoutHandler(readTimeoutMillis, TimeUnit.MILLISECONDS)))
+                .doAfterResponse((response, connection) -> connection
+                        .removeHandler(READ_TIMEOUT_HANDLER_NAME)
+                        .removeHandler(WRITE_TIMEOUT_HANDLER_NAME));
+
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
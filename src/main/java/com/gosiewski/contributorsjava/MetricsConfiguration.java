@@ -0,0 +1,74 @@
+package com.gosiewski.contributorsjava;
+
+import com.gosiewski.contributorsjava.service.CircuitBreaker;
+import com.gosiewski.contributorsjava.service.ConnectionPool;
+import com.gosiewski.contributorsjava.service.RateLimitScheduler;
+import com.gosiewski.contributorsjava.service.ResponseCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Publishes the stats the GitHub clients already keep track of, so they end up next to the request timers
+// at /actuator/prometheus. The meters read the stats only when scraped.
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public MeterBinder responseCacheMetrics(final ResponseCache responseCache) {
+        return registry -> {
+            FunctionCounter.builder("github.cache.hits", responseCache, cache -> cache.getStats().getHits())
+                    .description("GitHub pages confirmed unchanged by 304 Not Modified and served from memory")
+                    .register(registry);
+            FunctionCounter.builder("github.cache.misses", responseCache, cache -> cache.getStats().getMisses())
+                    .description("GitHub pages which had to be fetched in full")
+                    .register(registry);
+            FunctionCounter.builder("github.cache.revalidations", responseCache,
+                    cache -> cache.getStats().getRevalidations())
+                    .description("Conditional requests sent for GitHub pages held in memory")
+                    .register(registry);
+            FunctionCounter.builder("github.cache.stale", responseCache, cache -> cache.getStats().getStaleServes())
+                    .description("GitHub pages served from memory unconfirmed while the circuit breaker was open")
+                    .register(registry);
+            Gauge.builder("github.cache.size", responseCache, cache -> cache.getStats().getSize())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder rateLimitMetrics(final RateLimitScheduler rateLimitScheduler) {
+        return registry -> {
+            Gauge.builder("github.ratelimit.remaining", rateLimitScheduler,
+                    scheduler -> scheduler.getStats().getRemaining())
+                    .description("Requests left in the current rate limit window, -1 when not known yet")
+                    .register(registry);
+            Gauge.builder("github.ratelimit.queued", rateLimitScheduler, scheduler -> scheduler.getStats().getQueued())
+                    .description("Requests waiting for the rate limit")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder circuitBreakerMetrics(final CircuitBreaker circuitBreaker) {
+        return registry -> Gauge.builder("github.circuitbreaker.state", circuitBreaker,
+                breaker -> breaker.getStats().getState().ordinal())
+                .description("0 when GitHub is called, 1 when calls fail fast, 2 while a probe call is let through")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder connectionPoolMetrics(final ConnectionPool connectionPool) {
+        return registry -> {
+            Gauge.builder("github.connections.leased", connectionPool, pool -> pool.getStats().getLeased())
+                    .register(registry);
+            Gauge.builder("github.connections.available", connectionPool, pool -> pool.getStats().getAvailable())
+                    .register(registry);
+            Gauge.builder("github.connections.pending", connectionPool, pool -> pool.getStats().getPending())
+                    .description("Calls waiting for a free connection")
+                    .register(registry);
+            Gauge.builder("github.connections.max", connectionPool, pool -> pool.getStats().getMax())
+                    .register(registry);
+        };
+    }
+}
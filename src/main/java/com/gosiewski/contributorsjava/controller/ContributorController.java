@@ -1,46 +1,209 @@
 package com.gosiewski.contributorsjava.controller;
 
-import com.gosiewski.contributorsjava.dto.outgoing.ContributorDto;
+import com.gosiewski.contributorsjava.dto.incoming.OrganizationsRequestDto;
 import com.gosiewski.contributorsjava.dto.outgoing.ErrorDto;
+import com.gosiewski.contributorsjava.dto.outgoing.LeaderboardSnapshotDto;
+import com.gosiewski.contributorsjava.dto.outgoing.OrganizationsLeaderboardDto;
 import com.gosiewski.contributorsjava.error.ApiCallError;
+import com.gosiewski.contributorsjava.error.DeadlineExceededError;
 import com.gosiewski.contributorsjava.error.DomainError;
 import com.gosiewski.contributorsjava.error.BlankOrganisationNameError;
+import com.gosiewski.contributorsjava.error.InvalidDeadlineError;
+import com.gosiewski.contributorsjava.error.InvalidLimitError;
 import com.gosiewski.contributorsjava.error.NotFoundError;
+import com.gosiewski.contributorsjava.error.RateLimitExceededError;
 import com.gosiewski.contributorsjava.service.ContributorService;
-import io.vavr.collection.Seq;
-import lombok.RequiredArgsConstructor;
+import com.gosiewski.contributorsjava.service.domain.Leaderboard;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vavr.collection.List;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.StringJoiner;
 
 @Slf4j
 @RestController
-@RequiredArgsConstructor
 public class ContributorController {
+    private final static String GZIP_ENCODING = "gzip";
+
+    private final static String COMPLETENESS_HEADER_NAME = "X-Leaderboard-Completeness";
+    private final static String MISSING_REPOSITORIES_HEADER_NAME = "X-Leaderboard-Missing-Repositories";
+    private final static String MISSING_COUNT_HEADER_NAME = "X-Leaderboard-Missing-Count";
+
+    // Servers limit the size of the headers, so the names may be cut short. The count is always the number of all the
+    // missing repositories.
+    private final static int MAX_MISSING_REPOSITORIES_LENGTH = 4096;
 
     private final ContributorService service;
 
+    private final SerializedLeaderboardCache serializedLeaderboardCache;
+
+    private final boolean nonBlocking;
+
+    private final MeterRegistry meterRegistry;
+
+    @Inject
+    public ContributorController(final ContributorService service,
+                                 final SerializedLeaderboardCache serializedLeaderboardCache,
+                                 @Value("${nonBlocking}") final boolean nonBlocking,
+                                 final MeterRegistry meterRegistry) {
+        this.service = service;
+        this.serializedLeaderboardCache = serializedLeaderboardCache;
+        this.nonBlocking = nonBlocking;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // In non-blocking mode no thread waits for GitHub, the response is written when the leaderboard is ready.
+    // The body is sent gzipped when the client accepts it, and clients polling with the ETag get 304 without it.
+    // Repositories not fetched before the deadline are left out, the X-Leaderboard-* headers tell which ones.
+    // Once the response is cancelled, the calls to GitHub are cancelled too, unless other requests wait for them.
     @GetMapping("/org/{organizationName}/contributors")
-    public final ResponseEntity<Seq<ContributorDto>> getContributorsByOrganization(
-            @PathVariable final String organizationName) {
-        final var result = service.getContributorsByOrganization(organizationName);
+    public final Mono<ResponseEntity<byte[]>> getContributorsByOrganization(
+            @PathVariable final String organizationName,
+            @RequestParam(required = false) final Integer limit,
+            @RequestParam(required = false) final Long deadlineMillis,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        final var deadline = Option.of(deadlineMillis).map(Duration::ofMillis);
+
+        // Serializing a big leaderboard must not hold the event loop of the GitHub client. The blocking service waits
+        // on a thread of its own, so cancelling the response (e.g. on the async request timeout) can interrupt it.
+        final var result = nonBlocking
+                ? service.getLeaderboardByOrganizationReactive(organizationName, Option.of(limit), deadline)
+                        .publishOn(Schedulers.parallel())
+                : Mono.fromSupplier(() -> service.getLeaderboardByOrganization(organizationName, Option.of(limit),
+                        deadline))
+                        .subscribeOn(Schedulers.boundedElastic());
+
+        return result.map(leaderboard -> toResponse(organizationName, Option.of(limit), leaderboard,
+                Option.of(ifNoneMatch), Option.of(acceptEncoding)));
+    }
+
+    // Many organizations in one pass, e.g. for reporting jobs. Each of them gets its own leaderboard (or error),
+    // "combined" adds a leaderboard of all the organizations together.
+    @PostMapping("/orgs/contributors")
+    public final Mono<ResponseEntity<OrganizationsLeaderboardDto>> getContributorsByOrganizations(
+            @RequestBody final OrganizationsRequestDto request) {
+        return service.getContributorsByOrganizations(Option.of(request.getOrganizations()).getOrElse(List.empty()),
+                Option.of(request.getLimit()), request.isCombined())
+                .map(result -> ResponseEntity.ok(result.getOrElseThrow(result::getLeft)));
+    }
+
+    // Server-sent events by default, newline delimited JSON for "Accept: application/stream+json"
+    @GetMapping(value = "/org/{organizationName}/contributors/stream",
+            produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_STREAM_JSON_VALUE})
+    public final Flux<LeaderboardSnapshotDto> streamContributorsByOrganization(
+            @PathVariable final String organizationName,
+            @RequestParam(required = false) final Integer limit) {
+        return service.streamContributorsByOrganization(organizationName, Option.of(limit));
+    }
+
+    private ResponseEntity<byte[]> toResponse(final String organizationName, final Option<Integer> limit,
+                                              final Either<DomainError, Leaderboard> result,
+                                              final Option<String> ifNoneMatch, final Option<String> acceptEncoding) {
+        final var computed = result.getOrElseThrow(result::getLeft);
+        final var leaderboard = serializedLeaderboardCache.get(organizationName, limit, computed.getContributors());
+        final var gzipped = acceptEncoding.exists(this::acceptsGzip);
+        final var eTag = gzipped ? leaderboard.getGzippedETag() : leaderboard.getETag();
 
-        return new ResponseEntity<>(result.getOrElseThrow(result::getLeft), HttpStatus.OK);
+        if (ifNoneMatch.exists(tags -> matchesETag(tags, leaderboard))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .headers(completenessHeaders(computed))
+                    .build();
+        }
+
+        final var response = ResponseEntity.ok()
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .headers(completenessHeaders(computed))
+                .contentType(MediaType.APPLICATION_JSON);
+
+        return gzipped
+                ? response.header(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING).body(leaderboard.getGzippedJson())
+                : response.body(leaderboard.getJson());
+    }
+
+    // Rounded down, so a leaderboard missing anything never claims to be complete
+    private HttpHeaders completenessHeaders(final Leaderboard leaderboard) {
+        final var headers = new HttpHeaders();
+        headers.set(COMPLETENESS_HEADER_NAME,
+                String.format(Locale.ROOT, "%.2f", Math.floor(leaderboard.getCompleteness() * 100) / 100));
+
+        if (!leaderboard.isComplete()) {
+            final var missingRepositories = new StringJoiner(",");
+
+            leaderboard.getMissingRepositories()
+                    .takeWhile(repository -> missingRepositories.length() + repository.length() + 1
+                            <= MAX_MISSING_REPOSITORIES_LENGTH)
+                    .forEach(missingRepositories::add);
+
+            headers.set(MISSING_REPOSITORIES_HEADER_NAME, missingRepositories.toString());
+            headers.set(MISSING_COUNT_HEADER_NAME, Integer.toString(leaderboard.getMissingRepositories().size()));
+        }
+
+        return headers;
+    }
+
+    // Both representations share the content, so either of the tags proves the client is up to date
+    private boolean matchesETag(final String ifNoneMatch,
+                                final SerializedLeaderboardCache.SerializedLeaderboard leaderboard) {
+        return List.of(ifNoneMatch.split(","))
+                .map(String::trim)
+                // Weak comparison, as If-None-Match requires
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .exists(tag -> tag.equals("*") || tag.equals(leaderboard.getETag())
+                        || tag.equals(leaderboard.getGzippedETag()));
+    }
+
+    private boolean acceptsGzip(final String acceptEncoding) {
+        return List.of(acceptEncoding.split(","))
+                .map(coding -> coding.trim().split(";"))
+                .exists(coding -> (coding[0].trim().equalsIgnoreCase(GZIP_ENCODING) || coding[0].trim().equals("*"))
+                        && !(coding.length > 1 && coding[1].trim().matches("q=0(\\.0*)?")));
     }
 
     @ExceptionHandler(Exception.class)
     public final ResponseEntity<ErrorDto> handleErrors(final HttpServletRequest req, final Exception ex) {
+        meterRegistry.counter("contributors.errors", "type", ex.getClass().getSimpleName()).increment();
+
         if (ex instanceof ApiCallError) {
             return new ResponseEntity<>(new ErrorDto("Sorry, we have troubles fetching repositories. Please, try again later"),
                     HttpStatus.INTERNAL_SERVER_ERROR);
         } else if (ex instanceof BlankOrganisationNameError) {
             return new ResponseEntity<>(new ErrorDto("Organisation name cannot be blank"), HttpStatus.BAD_REQUEST);
+        } else if (ex instanceof InvalidLimitError) {
+            return new ResponseEntity<>(new ErrorDto("Limit must be a positive number"), HttpStatus.BAD_REQUEST);
+        } else if (ex instanceof InvalidDeadlineError) {
+            return new ResponseEntity<>(new ErrorDto("Deadline must be a positive number"), HttpStatus.BAD_REQUEST);
+        } else if (ex instanceof DeadlineExceededError) {
+            return new ResponseEntity<>(new ErrorDto("GitHub did not answer in time. Please, try again later"),
+                    HttpStatus.GATEWAY_TIMEOUT);
+        } else if (ex instanceof RateLimitExceededError) {
+            return new ResponseEntity<>(new ErrorDto("GitHub rate limit exhausted. Please, try again later"),
+                    HttpStatus.SERVICE_UNAVAILABLE);
         } else if (ex instanceof NotFoundError) {
             return new ResponseEntity<>(new ErrorDto("Organization not found"), HttpStatus.NOT_FOUND);
         } else if (ex instanceof DomainError) {
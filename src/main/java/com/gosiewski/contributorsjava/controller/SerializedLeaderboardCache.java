@@ -0,0 +1,123 @@
+package com.gosiewski.contributorsjava.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gosiewski.contributorsjava.dto.outgoing.ContributorDto;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.GZIPOutputStream;
+
+// Leaderboards served recently, already turned into JSON and gzipped. A repeated request only compares the
+// leaderboard with the one serialized to make sure it did not change, instead of running it through Jackson and gzip
+// again. Mostly it is the very same instance, taken from the leaderboard cache.
+@Component
+public class SerializedLeaderboardCache {
+    private final static String GZIP_ETAG_SUFFIX = "-gzip";
+
+    private final ObjectMapper objectMapper;
+
+    private final Cache<CacheKey, SerializedLeaderboard> leaderboards;
+
+    @Inject
+    public SerializedLeaderboardCache(final ObjectMapper objectMapper,
+                                      @Value("${serializedLeaderboardCacheMaxBytes}") final long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.leaderboards = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((CacheKey key, SerializedLeaderboard leaderboard) -> leaderboard.getWeight())
+                .build();
+    }
+
+    final SerializedLeaderboard get(final String organizationName, final Option<Integer> limit,
+                                    final Seq<ContributorDto> leaderboard) {
+        final var key = new CacheKey(organizationName, limit);
+        final var cached = leaderboards.getIfPresent(key);
+
+        if (cached != null && isSame(cached.getLeaderboard(), leaderboard)) {
+            return cached;
+        }
+
+        final var serialized = serialize(leaderboard);
+        leaderboards.put(key, serialized);
+
+        return serialized;
+    }
+
+    private SerializedLeaderboard serialize(final Seq<ContributorDto> leaderboard) {
+        try {
+            final var json = objectMapper.writeValueAsBytes(leaderboard);
+            final var eTag = hash(json);
+
+            // Strong ETags have to differ between content codings, the gzipped body is another representation
+            return new SerializedLeaderboard(leaderboard, json, gzip(json), "\"" + eTag + "\"",
+                    "\"" + eTag + GZIP_ETAG_SUFFIX + "\"");
+        } catch (final JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Limited leaderboards are taken anew for every request, those are compared contributor by contributor. Still
+    // cheap enough to do on every request, unlike the JSON itself.
+    private boolean isSame(final Seq<ContributorDto> cached, final Seq<ContributorDto> leaderboard) {
+        return cached == leaderboard || cached.equals(leaderboard);
+    }
+
+    private String hash(final byte[] json) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256").digest(json);
+            final var hex = new StringBuilder();
+
+            // Half of the digest is plenty to tell two leaderboards apart
+            for (int i = 0; i < digest.length / 2; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+
+            return hex.toString();
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private byte[] gzip(final byte[] json) {
+        final var compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+
+        try (final var gzipStream = new GZIPOutputStream(compressed)) {
+            gzipStream.write(json);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return compressed.toByteArray();
+    }
+
+    @lombok.Value
+    private static class CacheKey {
+        private final String organizationName;
+        private final Option<Integer> limit;
+    }
+
+    @lombok.Value
+    static class SerializedLeaderboard {
+        // Kept for comparison only, it is mostly shared with the leaderboard cache
+        private final Seq<ContributorDto> leaderboard;
+        private final byte[] json;
+        private final byte[] gzippedJson;
+        private final String eTag;
+        private final String gzippedETag;
+
+        int getWeight() {
+            return json.length + gzippedJson.length;
+        }
+    }
+}
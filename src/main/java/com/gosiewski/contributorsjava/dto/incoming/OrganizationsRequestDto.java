@@ -0,0 +1,11 @@
+package com.gosiewski.contributorsjava.dto.incoming;
+
+import io.vavr.collection.Seq;
+import lombok.Value;
+
+@Value
+public final class OrganizationsRequestDto {
+    private final Seq<String> organizations;
+    private final Integer limit;
+    private final boolean combined;
+}
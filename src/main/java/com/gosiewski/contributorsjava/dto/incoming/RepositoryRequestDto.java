@@ -1,8 +0,0 @@
-package com.gosiewski.contributorsjava.dto.incoming;
-
-import lombok.Value;
-
-@Value
-public final class RepositoryRequestDto {
-    private String name;
-}
@@ -0,0 +1,17 @@
+package com.gosiewski.contributorsjava.dto.outgoing;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import lombok.Value;
+
+@Value
+public class LeaderboardSnapshotDto {
+    private Seq<ContributorDto> contributors;
+    // Both 0 for a leaderboard served from the cache, which does not keep them
+    private int processedRepositories;
+    private int totalRepositories;
+    private boolean complete;
+    private boolean cached;
+    // Set only on the last snapshot of a stream which failed
+    private Option<String> error;
+}
@@ -0,0 +1,12 @@
+package com.gosiewski.contributorsjava.dto.outgoing;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import lombok.Value;
+
+@Value
+public class OrganizationLeaderboardDto {
+    private String organization;
+    private Seq<ContributorDto> contributors;
+    private Option<String> error;
+}
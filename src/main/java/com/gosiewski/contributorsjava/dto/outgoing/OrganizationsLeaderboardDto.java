@@ -0,0 +1,11 @@
+package com.gosiewski.contributorsjava.dto.outgoing;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import lombok.Value;
+
+@Value
+public class OrganizationsLeaderboardDto {
+    private Seq<OrganizationLeaderboardDto> organizations;
+    private Option<Seq<ContributorDto>> combined;
+}
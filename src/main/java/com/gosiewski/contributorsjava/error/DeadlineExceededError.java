@@ -0,0 +1,7 @@
+package com.gosiewski.contributorsjava.error;
+
+public final class DeadlineExceededError extends DomainError {
+    public DeadlineExceededError() {
+        super("Deadline of the request passed before GitHub answered.");
+    }
+}
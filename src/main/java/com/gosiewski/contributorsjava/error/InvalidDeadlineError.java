@@ -0,0 +1,7 @@
+package com.gosiewski.contributorsjava.error;
+
+public final class InvalidDeadlineError extends DomainError {
+    public InvalidDeadlineError(String reason) {
+        super(reason);
+    }
+}
@@ -0,0 +1,7 @@
+package com.gosiewski.contributorsjava.error;
+
+public final class InvalidLimitError extends DomainError {
+    public InvalidLimitError(String reason) {
+        super(reason);
+    }
+}
@@ -0,0 +1,7 @@
+package com.gosiewski.contributorsjava.error;
+
+public final class RateLimitExceededError extends DomainError {
+    public RateLimitExceededError() {
+        super("GitHub rate limit exhausted for longer than we are allowed to wait.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.gosiewski.contributorsjava.error;
+
+public final class RequestCancelledError extends DomainError {
+    public RequestCancelledError() {
+        super("Request was cancelled before GitHub answered.");
+    }
+}
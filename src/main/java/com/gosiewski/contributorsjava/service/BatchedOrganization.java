@@ -0,0 +1,74 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.gosiewski.contributorsjava.dto.outgoing.ContributorDto;
+import com.gosiewski.contributorsjava.error.DomainError;
+import com.gosiewski.contributorsjava.service.domain.Contributor;
+import io.vavr.collection.Seq;
+import io.vavr.control.Either;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// An organization computed as a part of a batch. Its repositories are mixed with the ones of other organizations
+// in a shared queue, so it is complete once they are all listed and contributors of every one of them arrived,
+// in whatever order. The first error completes it right away and the rest of its repositories is skipped.
+final class BatchedOrganization {
+    private final String name;
+
+    private final ContributionsAccumulator accumulator = new ContributionsAccumulator();
+
+    // Listing of the repositories plus every listed repository not fetched yet
+    private final AtomicInteger pending = new AtomicInteger(1);
+
+    private final AtomicInteger repositories = new AtomicInteger();
+
+    private final CompletableFuture<Either<DomainError, Seq<ContributorDto>>> leaderboard = new CompletableFuture<>();
+
+    BatchedOrganization(final String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getRepositories() {
+        return repositories.get();
+    }
+
+    CompletableFuture<Either<DomainError, Seq<ContributorDto>>> getLeaderboard() {
+        return leaderboard;
+    }
+
+    boolean isDone() {
+        return leaderboard.isDone();
+    }
+
+    void repositoryListed() {
+        repositories.incrementAndGet();
+        pending.incrementAndGet();
+    }
+
+    void listingCompleted() {
+        completeOne();
+    }
+
+    void contributorsFetched(final Seq<Contributor> contributors) {
+        accumulator.add(contributors);
+        completeOne();
+    }
+
+    void fail(final Throwable error) {
+        if (error instanceof DomainError) {
+            leaderboard.complete(Either.left((DomainError) error));
+        } else {
+            leaderboard.completeExceptionally(error);
+        }
+    }
+
+    private void completeOne() {
+        if (pending.decrementAndGet() == 0) {
+            leaderboard.complete(Either.right(accumulator.getSortedContributors()));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.gosiewski.contributorsjava.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+// Stops calling GitHub while most of the recent calls fail, instead of letting every caller wait for its own
+// timeout. Failures are transport errors and 5xx responses, any other answer proves GitHub is fine. Once open,
+// after openDuration a single probe call is let through: its success closes the breaker, its failure opens it
+// again. Shared by the blocking and the non-blocking client.
+@Slf4j
+@Component
+public class CircuitBreaker {
+    // A rate computed from fewer calls says nothing
+    private final static int MIN_CALLS = 10;
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureRatePercent;
+
+    private final Duration openDuration;
+
+    private final Clock clock;
+
+    // Outcomes of the last calls, true for a failure
+    private final boolean[] window;
+    private int position;
+    private int calls;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private Instant openUntil = Instant.EPOCH;
+    // A probe which never reported back (e.g. it was cancelled) must not keep the breaker half-open forever
+    private Instant probeExpiresAt = Instant.EPOCH;
+
+    @Inject
+    public CircuitBreaker(@Value("${circuitBreakerFailureRatePercent}") final int failureRatePercent,
+                          @Value("${circuitBreakerWindowSize}") final int windowSize,
+                          @Value("${circuitBreakerOpenSeconds}") final long openSeconds) {
+        this(failureRatePercent, windowSize, Duration.ofSeconds(openSeconds), Clock.systemUTC());
+    }
+
+    CircuitBreaker(final int failureRatePercent, final int windowSize, final Duration openDuration,
+                   final Clock clock) {
+        this.failureRatePercent = failureRatePercent;
+        this.window = new boolean[windowSize];
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    final synchronized boolean tryAcquirePermission() {
+        final var now = clock.instant();
+
+        switch (state) {
+            case OPEN:
+                if (now.isBefore(openUntil)) {
+                    return false;
+                }
+
+                state = State.HALF_OPEN;
+                probeExpiresAt = now.plus(openDuration);
+
+                return true;
+            case HALF_OPEN:
+                if (now.isBefore(probeExpiresAt)) {
+                    return false;
+                }
+
+                probeExpiresAt = now.plus(openDuration);
+
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    final synchronized void recordSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    final synchronized void recordFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+
+            if (calls >= Math.min(MIN_CALLS, window.length) && failures * 100 >= failureRatePercent * calls) {
+                open();
+            }
+        }
+    }
+
+    public final synchronized Stats getStats() {
+        return new Stats(state, calls, failures);
+    }
+
+    private void record(final boolean failure) {
+        // Window of size 0 disables the breaker, it never opens
+        if (window.length == 0) {
+            return;
+        }
+
+        if (calls == window.length) {
+            failures -= window[position] ? 1 : 0;
+        } else {
+            calls++;
+        }
+
+        window[position] = failure;
+        failures += failure ? 1 : 0;
+        position = (position + 1) % window.length;
+    }
+
+    private void open() {
+        log.warn("GitHub calls keep failing, not calling it for " + openDuration);
+
+        state = State.OPEN;
+        openUntil = clock.instant().plus(openDuration);
+    }
+
+    private void close() {
+        log.info("GitHub calls succeed again");
+
+        state = State.CLOSED;
+        calls = 0;
+        failures = 0;
+        position = 0;
+    }
+
+    @lombok.Value
+    public static class Stats {
+        private final State state;
+        // Outcomes in the window, cleared when the breaker closes again
+        private final int calls;
+        private final int failures;
+    }
+}
@@ -0,0 +1,51 @@
+package com.gosiewski.contributorsjava.service;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+// Persistent connections to GitHub used by the blocking client. Reusing them saves a TCP and TLS handshake
+// on almost every call, which used to cost more than the call itself.
+@Component
+public class ConnectionPool {
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    @Inject
+    public ConnectionPool(@Value("${httpMaxConnections}") final int maxConnections) {
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+
+        // Nearly every call goes to the same host, so a single route may take the whole pool
+        this.connectionManager.setMaxTotal(maxConnections);
+        this.connectionManager.setDefaultMaxPerRoute(maxConnections);
+    }
+
+    public final PoolingHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    public final Stats getStats() {
+        final var totalStats = connectionManager.getTotalStats();
+
+        return new Stats(totalStats.getLeased(), totalStats.getAvailable(), totalStats.getPending(),
+                totalStats.getMax());
+    }
+
+    @PreDestroy
+    void close() {
+        connectionManager.close();
+    }
+
+    @lombok.Value
+    public static class Stats {
+        // Connections currently serving a request
+        private final int leased;
+        // Idle connections kept alive for the next requests
+        private final int available;
+        // Requests waiting for a connection, non-zero means the pool is too small
+        private final int pending;
+        private final int max;
+    }
+}
@@ -0,0 +1,127 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.gosiewski.contributorsjava.dto.outgoing.ContributorDto;
+import com.gosiewski.contributorsjava.service.domain.Contributor;
+import com.gosiewski.contributorsjava.service.domain.Leaderboard;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Sums contributions per login while the repositories are still being fetched, so only sorting is left when the
+// last one arrives. Allocates a single counter per login, no matter in how many repositories it appears.
+final class ContributionsAccumulator {
+    private final static Comparator<ContributorDto> BY_CONTRIBUTIONS =
+            Comparator.comparingInt(ContributorDto::getContributions);
+
+    private final ConcurrentHashMap<String, AtomicInteger> contributions = new ConcurrentHashMap<>();
+
+    // Adding takes the read lock, so repositories are still summed up concurrently and only close() waits for them
+    private final ReadWriteLock closing = new ReentrantReadWriteLock();
+    private final Set<String> addedRepositories = ConcurrentHashMap.newKeySet();
+    private boolean closed;
+
+    void add(final Seq<Contributor> contributors) {
+        contributors.forEach(contributor -> counterOf(contributor.getLogin())
+                .addAndGet(contributor.getContributionsAmount()));
+    }
+
+    // Contributors arriving after close() are dropped. Repositories added before are remembered, so a leaderboard
+    // cut short by a deadline can tell exactly which of them it holds.
+    boolean addUnlessClosed(final String repositoryName, final Seq<Contributor> contributors) {
+        closing.readLock().lock();
+        try {
+            if (closed) {
+                return false;
+            }
+
+            add(contributors);
+            addedRepositories.add(repositoryName);
+
+            return true;
+        } finally {
+            closing.readLock().unlock();
+        }
+    }
+
+    void close() {
+        closing.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closing.writeLock().unlock();
+        }
+    }
+
+    boolean isAdded(final String repositoryName) {
+        return addedRepositories.contains(repositoryName);
+    }
+
+    // Leaderboard of the repositories added so far, the rest of them reported missing. Holds adding back only while
+    // the counters are copied, so no repository is caught summed up but not marked as added yet.
+    Leaderboard snapshot(final Seq<String> repositories) {
+        final Seq<ContributorDto> contributors;
+        final Seq<String> missingRepositories;
+
+        closing.writeLock().lock();
+        try {
+            contributors = contributions.entrySet().stream()
+                    .map(entry -> new ContributorDto(entry.getKey(), entry.getValue().get()))
+                    .collect(List.collector());
+            missingRepositories = repositories.filter(repository -> !isAdded(repository));
+        } finally {
+            closing.writeLock().unlock();
+        }
+
+        final var sorted = contributors.sorted(BY_CONTRIBUTIONS.reversed());
+
+        return missingRepositories.isEmpty()
+                ? Leaderboard.complete(sorted)
+                : Leaderboard.partial(sorted, missingRepositories, repositories.size());
+    }
+
+    // Safe to call while repositories are still being added, it sorts whatever was summed so far
+    Seq<ContributorDto> getSortedContributors() {
+        return contributions.entrySet().stream()
+                .map(entry -> new ContributorDto(entry.getKey(), entry.getValue().get()))
+                .sorted(BY_CONTRIBUTIONS.reversed())
+                .collect(List.collector());
+    }
+
+    // O(n log k) instead of sorting everyone: a min-heap keeps the best k seen so far and the weakest of them is
+    // replaced whenever somebody better shows up
+    Seq<ContributorDto> getTopContributors(final int limit) {
+        final var top = new PriorityQueue<ContributorDto>(Math.max(1, Math.min(limit, contributions.size())),
+                BY_CONTRIBUTIONS);
+
+        contributions.forEach((login, counter) -> {
+            final var contributionsAmount = counter.get();
+
+            if (top.size() < limit) {
+                top.add(new ContributorDto(login, contributionsAmount));
+            } else if (contributionsAmount > top.peek().getContributions()) {
+                top.poll();
+                top.add(new ContributorDto(login, contributionsAmount));
+            }
+        });
+
+        return List.ofAll(top).sorted(BY_CONTRIBUTIONS.reversed());
+    }
+
+    Seq<ContributorDto> getSortedContributors(final Option<Integer> limit) {
+        return limit.map(this::getTopContributors).getOrElse(() -> getSortedContributors());
+    }
+
+    private AtomicInteger counterOf(final String login) {
+        final var counter = contributions.get(login);
+
+        return counter != null ? counter : contributions.computeIfAbsent(login, key -> new AtomicInteger());
+    }
+}
@@ -1,54 +1,551 @@
 package com.gosiewski.contributorsjava.service;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.gosiewski.contributorsjava.dto.outgoing.ContributorDto;
+import com.gosiewski.contributorsjava.dto.outgoing.LeaderboardSnapshotDto;
+import com.gosiewski.contributorsjava.dto.outgoing.OrganizationLeaderboardDto;
+import com.gosiewski.contributorsjava.dto.outgoing.OrganizationsLeaderboardDto;
+import com.gosiewski.contributorsjava.error.ApiCallError;
+import com.gosiewski.contributorsjava.error.BlankOrganisationNameError;
+import com.gosiewski.contributorsjava.error.DeadlineExceededError;
 import com.gosiewski.contributorsjava.error.DomainError;
+import com.gosiewski.contributorsjava.error.InvalidDeadlineError;
+import com.gosiewski.contributorsjava.error.InvalidLimitError;
+import com.gosiewski.contributorsjava.error.RequestCancelledError;
 import com.gosiewski.contributorsjava.service.domain.Contributor;
+import com.gosiewski.contributorsjava.service.domain.Leaderboard;
 import com.gosiewski.contributorsjava.service.domain.Repository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.vavr.Tuple;
+import io.vavr.collection.List;
 import io.vavr.collection.Seq;
 import io.vavr.concurrent.Future;
 import io.vavr.control.Either;
-import lombok.RequiredArgsConstructor;
+import io.vavr.control.Option;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import java.util.Comparator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.inject.Inject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
-import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class ContributorService {
-    private final Executor executor = Executors.newFixedThreadPool(32);
+    // Repositories of all the organizations computed by the blocking client, fetched in turns
+    private final FairShareExecutor fanOut;
+
+    // Blocking computations of leaderboards, apart from the threads of the callers
+    private final Executor computationExecutor;
 
     private final GitHubApiService gitHubAPIService;
 
+    private final ReactiveGitHubApiService reactiveGitHubApiService;
+
+    private final LeaderboardCache leaderboardCache;
+
+    private final int maxConcurrentRepos;
+
+    private final Duration defaultDeadline;
+
+    private final MeterRegistry meterRegistry;
+
+    // Computations in flight by organization, for the callers which cannot wait until they are done
+    private final ConcurrentHashMap<String, LeaderboardProgress> inProgress = new ConcurrentHashMap<>();
+
+    // GitHub requests the last complete computation of an organization took, what refreshing it is going to cost
+    private final Cache<String, Long> costs = Caffeine.newBuilder().maximumSize(10_000).build();
+
+    @Inject
+    public ContributorService(final GitHubApiService gitHubAPIService,
+                              final ReactiveGitHubApiService reactiveGitHubApiService,
+                              final LeaderboardCache leaderboardCache,
+                              @Value("${maxConcurrentRepos}") final int maxConcurrentRepos,
+                              @Value("${requestDeadlineMillis}") final long requestDeadlineMillis,
+                              final MeterRegistry meterRegistry) {
+        this.gitHubAPIService = gitHubAPIService;
+        this.reactiveGitHubApiService = reactiveGitHubApiService;
+        this.leaderboardCache = leaderboardCache;
+        this.maxConcurrentRepos = maxConcurrentRepos;
+        this.defaultDeadline = Duration.ofMillis(requestDeadlineMillis);
+        this.meterRegistry = meterRegistry;
+        this.fanOut = new FairShareExecutor(maxConcurrentRepos, meterRegistry);
+        // Not bounded, there are never more computations than callers waiting for them
+        this.computationExecutor = ExecutorServiceMetrics.monitor(meterRegistry, Executors.newCachedThreadPool(),
+                "leaderboardComputation");
+    }
+
     public Either<DomainError, Seq<ContributorDto>> getContributorsByOrganization(final String organizationName) {
-        return gitHubAPIService.getOrganizationRepos(organizationName)
-                .map(repositories -> fetchContributorsAsync(repositories, organizationName))
-                .flatMap(Either::sequenceRight)
-                .map(this::sortAndMergeContributorsEntries);
+        return getContributorsByOrganization(organizationName, Option.none());
+    }
+
+    // Contributors only, computed within the default deadline. Which repositories are missing from them, if any,
+    // tells getLeaderboardByOrganization.
+    public Either<DomainError, Seq<ContributorDto>> getContributorsByOrganization(final String organizationName,
+                                                                                final Option<Integer> limit) {
+        return getLeaderboardByOrganization(organizationName, limit, Option.none()).map(Leaderboard::getContributors);
+    }
+
+    // Leaderboards are cached sorted, so taking the top of them is enough for the limited requests. Repositories
+    // which failed or were not fetched before the deadline (the default one, unless the request asks for a shorter
+    // one) are left out and listed as missing. The request fails only when none of them made it. Interrupting the
+    // calling thread means the caller left, the computation is cancelled if nobody else waits for it.
+    public Either<DomainError, Leaderboard> getLeaderboardByOrganization(final String organizationName,
+                                                                         final Option<Integer> limit,
+                                                                         final Option<Duration> deadline) {
+        return validateLimit(limit)
+                .flatMap(validLimit -> validateDeadline(deadline))
+                .map(Deadline::after)
+                .flatMap(validDeadline -> {
+                    // Shared by everybody asking meanwhile, so it keeps the default deadline whoever started it
+                    final var leaderboard = leaderboardCache.get(organizationName,
+                            () -> computeContributorsByOrganizationAsync(organizationName));
+
+                    return awaitLeaderboard(leaderboard, Option.of(inProgress.get(organizationName)), validDeadline);
+                })
+                .map(leaderboard -> leaderboard.withContributors(takeTop(leaderboard.getContributors(), limit)));
+    }
+
+    public Mono<Either<DomainError, Seq<ContributorDto>>> getContributorsByOrganizationReactive(
+            final String organizationName) {
+        return getContributorsByOrganizationReactive(organizationName, Option.none());
+    }
+
+    public Mono<Either<DomainError, Seq<ContributorDto>>> getContributorsByOrganizationReactive(
+            final String organizationName, final Option<Integer> limit) {
+        return getLeaderboardByOrganizationReactive(organizationName, limit, Option.none())
+                .map(result -> result.map(Leaderboard::getContributors));
+    }
+
+    // Does not block any thread while waiting for GitHub, the result is computed on the HTTP client's event loop
+    public Mono<Either<DomainError, Leaderboard>> getLeaderboardByOrganizationReactive(
+            final String organizationName, final Option<Integer> limit, final Option<Duration> deadline) {
+        final var validation = validateLimit(limit).flatMap(validLimit -> validateDeadline(deadline));
+
+        if (validation.isLeft()) {
+            return Mono.just(Either.<DomainError, Leaderboard>left(validation.getLeft()));
+        }
+
+        return Mono.defer(() -> {
+            final var validDeadline = Deadline.after(validation.get());
+            // Shared by everybody asking meanwhile, so it keeps the default deadline whoever started it
+            final var answer = leaderboardCache.get(organizationName, () -> {
+                final var progress = new LeaderboardProgress();
+                inProgress.put(organizationName, progress);
+
+                // Cancelling the future cancels the subscription, and with it the calls in flight
+                return computeContributorsByOrganizationReactive(organizationName, Deadline.after(defaultDeadline),
+                        progress)
+                        .doOnCancel(this::recordCancelled)
+                        .doFinally(signal -> inProgress.remove(organizationName, progress))
+                        .toFuture();
+            });
+            final var progress = Option.of(inProgress.get(organizationName));
+
+            // The client left or its deadline passed, the computation goes on only if somebody else waits for it.
+            // Timing out cancels the future first, so the fallback finds it cancelled unless it was done already.
+            return Mono.fromFuture(answer)
+                    .doOnCancel(() -> answer.cancel(false))
+                    .timeout(Duration.ofNanos(validDeadline.remainingNanos()), Mono.fromSupplier(
+                            () -> answer.isCancelled() ? snapshotOf(progress) : answer.join()));
+        }).map(result -> result.map(leaderboard -> leaderboard.withContributors(
+                takeTop(leaderboard.getContributors(), limit))));
     }
 
-    private Seq<Either<DomainError, Seq<Contributor>>> fetchContributorsAsync(final Seq<Repository> repositories,
-                                                                              final String organizationName) {
-        return Future.sequence(executor, repositories
-                .map(repository -> gitHubAPIService.getRepoContributors(organizationName, repository.getName()))
-                .collect(Collectors.toList()))
-                .get();
+    // Organizations of a batch share a single queue of repositories: contributors of one organization are fetched
+    // while repositories of the next ones are still being listed, and all of them together never exceed
+    // maxConcurrentRepos calls. Organizations repeated in the batch (GitHub ignores case of the names) are fetched
+    // once. A failed organization is reported next to the others instead of failing the whole batch.
+    public Mono<Either<DomainError, OrganizationsLeaderboardDto>> getContributorsByOrganizations(
+            final Seq<String> organizationNames, final Option<Integer> limit, final boolean combined) {
+        final var validation = validateLimit(limit).flatMap(ignored -> validateOrganizations(organizationNames));
+
+        if (validation.isLeft()) {
+            return Mono.just(Either.<DomainError, OrganizationsLeaderboardDto>left(validation.getLeft()));
+        }
+
+        final var distinctNames = organizationNames.distinctBy(name -> name.toLowerCase(Locale.ROOT));
+
+        return Mono.defer(() -> {
+            final var batch = new ArrayList<BatchedOrganization>();
+
+            // Cached and in-flight leaderboards are reused, only the missing ones join the batch
+            final var leaderboards = distinctNames.map(name -> leaderboardCache.get(name, () -> {
+                final var organization = new BatchedOrganization(name);
+                final var sample = Timer.start(meterRegistry);
+                batch.add(organization);
+
+                return organization.getLeaderboard().thenApply(result -> result
+                        .peek(leaderboard -> recordAggregation(sample, organization.getRepositories(),
+                                leaderboard.size()))
+                        .map(Leaderboard::complete));
+            }));
+
+            // Like a single organization, the batch goes on when the client leaves, as other requests may be
+            // waiting for the same leaderboards
+            fetchBatch(List.ofAll(batch))
+                    .subscribe(null, error -> batch.forEach(organization -> organization.fail(error)));
+
+            return Mono.when(leaderboards.map(Mono::fromFuture))
+                    .then(Mono.fromSupplier(() -> Either.<DomainError, OrganizationsLeaderboardDto>right(
+                            toOrganizationsLeaderboard(distinctNames, leaderboards.map(leaderboard -> leaderboard
+                                    .join()
+                                    .map(Leaderboard::getContributors)), limit, combined))));
+        });
+    }
+
+    public Flux<LeaderboardSnapshotDto> streamContributorsByOrganization(final String organizationName) {
+        return streamContributorsByOrganization(organizationName, Option.none());
+    }
+
+    // Emits the leaderboard merged so far every time contributors of another repository arrive, the last snapshot
+    // is the complete one. Always goes through the reactive client, as progress is reported per repository.
+    // The response is committed before the first snapshot, so a failure cannot turn into an error response any more:
+    // the stream ends with a snapshot carrying the error instead, parsed by the clients like any other.
+    public Flux<LeaderboardSnapshotDto> streamContributorsByOrganization(final String organizationName,
+                                                                        final Option<Integer> limit) {
+        final var validation = validateLimit(limit);
+
+        if (validation.isLeft()) {
+            return Flux.just(failedSnapshot(List.empty(), 0, 0, validation.getLeft()));
+        }
+
+        final var cachedLeaderboard = leaderboardCache.getIfPresent(organizationName);
+
+        if (cachedLeaderboard.isDefined()) {
+            return Flux.just(new LeaderboardSnapshotDto(takeTop(cachedLeaderboard.get(), limit), 0, 0, true, true,
+                    Option.none()));
+        }
+
+        return reactiveGitHubApiService.getOrganizationRepos(organizationName)
+                .collectList()
+                .flatMapMany(repositories -> {
+                    final var accumulator = new ContributionsAccumulator();
+                    final var processedRepositories = new AtomicInteger();
+
+                    return Flux.fromIterable(repositories)
+                            .flatMap(repository -> reactiveGitHubApiService.getRepoContributors(organizationName,
+                                    repository), maxConcurrentRepos)
+                            .map(contributors -> {
+                                accumulator.add(contributors);
+                                return processedRepositories.incrementAndGet();
+                            })
+                            .startWith(0)
+                            // Slow clients skip intermediate snapshots instead of making us sort every one of them
+                            .onBackpressureLatest()
+                            .map(processed -> new LeaderboardSnapshotDto(accumulator.getSortedContributors(limit),
+                                    processed, repositories.size(), processed == repositories.size(), false,
+                                    Option.none()))
+                            // The leaderboard merged until the failure goes along with it
+                            .onErrorResume(DomainError.class, error -> Flux.just(failedSnapshot(
+                                    accumulator.getSortedContributors(limit), processedRepositories.get(),
+                                    repositories.size(), error)));
+                })
+                .onErrorResume(DomainError.class, error -> Flux.just(failedSnapshot(List.empty(), 0, 0, error)));
+    }
+
+    // Recomputes a cached leaderboard in the background. The cached one keeps being served meanwhile and is replaced
+    // only by a successful result. The deadline counts the requests it takes, and may limit them.
+    final Either<DomainError, Leaderboard> refreshContributorsByOrganization(final String organizationName,
+                                                                             final Deadline deadline) {
+        final var sample = Timer.start(meterRegistry);
+
+        return gitHubAPIService.getOrganizationRepos(organizationName, deadline)
+                .flatMap(repositories -> fetchContributorsAsync(sample, repositories, organizationName,
+                        deadline, FairShareExecutor.Lane.BACKGROUND, new LeaderboardProgress()))
+                // The cached leaderboard is better than one missing some of the repositories
+                .filterOrElse(Leaderboard::isComplete, partial -> new ApiCallError())
+                .peek(leaderboard -> {
+                    leaderboardCache.replace(organizationName, leaderboard.getContributors());
+                    costs.put(organizationName, deadline.getRequests());
+                });
+    }
+
+    // Known only for organizations computed by the blocking client, the reactive one does not count requests
+    final Option<Long> getRequestCost(final String organizationName) {
+        return Option.of(costs.getIfPresent(organizationName));
+    }
+
+    // Runs apart from the callers, so any of them can leave without taking it down for the others. Cancelled by the
+    // cache once all of them left, which cancels the deadline shared by all its fetches.
+    private CompletableFuture<Either<DomainError, Leaderboard>> computeContributorsByOrganizationAsync(
+            final String organizationName) {
+        final var deadline = Deadline.after(defaultDeadline);
+        final var progress = new LeaderboardProgress();
+        inProgress.put(organizationName, progress);
+
+        final var computation = CompletableFuture.supplyAsync(
+                () -> computeContributorsByOrganization(organizationName, deadline, progress), computationExecutor);
+
+        computation.whenComplete((leaderboard, ex) -> {
+            inProgress.remove(organizationName, progress);
+
+            if (leaderboard != null && leaderboard.exists(Leaderboard::isComplete)) {
+                costs.put(organizationName, deadline.getRequests());
+            }
+
+            if (computation.isCancelled()) {
+                deadline.cancel();
+                recordCancelled();
+            }
+        });
+
+        return computation;
+    }
+
+    private Either<DomainError, Leaderboard> computeContributorsByOrganization(final String organizationName,
+                                                                             final Deadline deadline,
+                                                                             final LeaderboardProgress progress) {
+        final var sample = Timer.start(meterRegistry);
+
+        return gitHubAPIService.getOrganizationRepos(organizationName, deadline)
+                .flatMap(repositories -> fetchContributorsAsync(sample, repositories, organizationName, deadline,
+                        FairShareExecutor.Lane.INTERACTIVE, progress));
+    }
+
+    // Repositories which are not listed completely before the deadline leave nothing to compare the fetched ones to,
+    // so the request fails then
+    private Mono<Either<DomainError, Leaderboard>> computeContributorsByOrganizationReactive(
+            final String organizationName, final Deadline deadline, final LeaderboardProgress progress) {
+        return Mono.defer(() -> {
+            final var accumulator = progress.getAccumulator();
+            final var repositories = new ConcurrentLinkedQueue<String>();
+            final var listed = new AtomicBoolean();
+            final var firstError = new AtomicReference<DomainError>();
+            final var sample = Timer.start(meterRegistry);
+
+            final var fetching = reactiveGitHubApiService.getOrganizationRepos(organizationName)
+                    .doOnNext(repository -> repositories.add(repository.getName()))
+                    .doOnComplete(() -> {
+                        listed.set(true);
+                        progress.listed(List.ofAll(repositories));
+                    })
+                    .flatMap(repository -> reactiveGitHubApiService.getRepoContributors(organizationName, repository)
+                            .map(contributors -> Tuple.of(repository.getName(), contributors))
+                            // A failed repository ends up missing instead of failing the others
+                            .onErrorResume(DomainError.class, error -> {
+                                firstError.compareAndSet(null, error);
+                                return Mono.empty();
+                            }), maxConcurrentRepos);
+
+            // Cancelling at the deadline cancels the calls still in flight as well
+            return (deadline.isBounded() ? fetching.take(Duration.ofNanos(deadline.remainingNanos())) : fetching)
+                    .doOnNext(fetched -> accumulator.addUnlessClosed(fetched._1, fetched._2))
+                    .then(Mono.fromSupplier(() -> listed.get()
+                            ? toLeaderboard(sample, List.ofAll(repositories), accumulator,
+                                    Option.of(firstError.get()))
+                            : Either.<DomainError, Leaderboard>left(new DeadlineExceededError())))
+                    .onErrorResume(DomainError.class,
+                            error -> Mono.just(Either.<DomainError, Leaderboard>left(error)));
+        });
+    }
+
+    private Mono<Void> fetchBatch(final Seq<BatchedOrganization> organizations) {
+        return Flux.fromIterable(organizations)
+                .flatMap(organization -> reactiveGitHubApiService.getOrganizationRepos(organization.getName())
+                        .doOnNext(repository -> organization.repositoryListed())
+                        .doOnComplete(organization::listingCompleted)
+                        .map(repository -> Tuple.of(organization, repository))
+                        .onErrorResume(DomainError.class, error -> {
+                            organization.fail(error);
+                            return Flux.empty();
+                        }), maxConcurrentRepos)
+                // Nothing left to do for organizations which already failed
+                .filter(task -> !task._1.isDone())
+                .flatMap(task -> reactiveGitHubApiService.getRepoContributors(task._1.getName(), task._2)
+                        .doOnNext(task._1::contributorsFetched)
+                        .onErrorResume(DomainError.class, error -> {
+                            task._1.fail(error);
+                            return Mono.empty();
+                        }), maxConcurrentRepos)
+                .then();
+    }
+
+    private OrganizationsLeaderboardDto toOrganizationsLeaderboard(
+            final Seq<String> organizationNames, final Seq<Either<DomainError, Seq<ContributorDto>>> results,
+            final Option<Integer> limit, final boolean combined) {
+        final var organizations = organizationNames.zipWith(results, (name, result) -> result.fold(
+                error -> new OrganizationLeaderboardDto(name, List.empty(), Option.of(error.getReason())),
+                leaderboard -> new OrganizationLeaderboardDto(name, takeTop(leaderboard, limit), Option.none())));
+
+        if (!combined) {
+            return new OrganizationsLeaderboardDto(organizations, Option.none());
+        }
+
+        // Merged from the full leaderboards, somebody may be in the combined top without being in any of the others
+        final var accumulator = new ContributionsAccumulator();
+        results.flatMap(Either::toOption).forEach(leaderboard -> accumulator.add(leaderboard
+                .map(contributor -> new Contributor(contributor.getName(), contributor.getContributions()))));
+
+        return new OrganizationsLeaderboardDto(organizations, Option.some(accumulator.getSortedContributors(limit)));
+    }
+
+    // Contributors of every repository are summed up as soon as they arrive, not after the slowest one. Nobody waits
+    // for the ones which did not arrive before the deadline, nor for any of them once the deadline is cancelled.
+    private Either<DomainError, Leaderboard> fetchContributorsAsync(final Timer.Sample sample,
+                                                                    final Seq<Repository> repositories,
+                                                                    final String organizationName,
+                                                                    final Deadline deadline,
+                                                                    final FairShareExecutor.Lane lane,
+                                                                    final LeaderboardProgress progress) {
+        final var accumulator = progress.getAccumulator();
+        final var firstError = new AtomicReference<DomainError>();
+        final var turns = fanOut.forOrganization(organizationName, lane);
+
+        final var results = Future.sequence(repositories
+                .map(repository -> gitHubAPIService.getRepoContributors(organizationName, repository, deadline, turns)
+                        .map(contributors -> contributors
+                                .peek(fetched -> accumulator.addUnlessClosed(repository.getName(), fetched))
+                                .peekLeft(error -> firstError.compareAndSet(null, error))))
+                .collect(Collectors.toList()));
+        progress.listed(repositories.map(Repository::getName));
+
+        try {
+            CompletableFuture.anyOf(results.toCompletableFuture(), deadline.whenCancelled())
+                    .get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException ex) {
+            // Whatever arrived so far makes the leaderboard
+        } catch (final ExecutionException ex) {
+            throw new CompletionException(ex.getCause());
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (deadline.isCancelled()) {
+            return Either.left(new RequestCancelledError());
+        }
+
+        return toLeaderboard(sample, repositories.map(Repository::getName), accumulator, Option.of(firstError.get()));
+    }
+
+    // The repositories added make the leaderboard and the rest of them is reported missing. With none of them added
+    // there is nothing to show, the first failure explains why.
+    private Either<DomainError, Leaderboard> toLeaderboard(final Timer.Sample sample, final Seq<String> repositories,
+                                                           final ContributionsAccumulator accumulator,
+                                                           final Option<DomainError> firstError) {
+        accumulator.close();
+
+        final var missingRepositories = repositories.filter(repository -> !accumulator.isAdded(repository));
+
+        if (missingRepositories.isEmpty()) {
+            final var contributors = accumulator.getSortedContributors();
+            recordAggregation(sample, repositories.size(), contributors.size());
+
+            return Either.right(Leaderboard.complete(contributors));
+        }
+
+        if (missingRepositories.size() == repositories.size()) {
+            return Either.left(firstError.getOrElse(DeadlineExceededError::new));
+        }
+
+        meterRegistry.counter("organization.partial").increment();
+
+        return Either.right(Leaderboard.partial(accumulator.getSortedContributors(), missingRepositories,
+                repositories.size()));
+    }
+
+    // Every caller waits for the shared computation until its own deadline only, and takes what the computation got
+    // by then. Either way a caller which stops waiting tells the cache so, by cancelling the future it got.
+    private Either<DomainError, Leaderboard> awaitLeaderboard(
+            final CompletableFuture<Either<DomainError, Leaderboard>> leaderboard,
+            final Option<LeaderboardProgress> progress, final Deadline deadline) {
+        try {
+            return leaderboard.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException ex) {
+            // Taken before leaving, a computation abandoned by everybody may stop adding to it
+            final var snapshot = snapshotOf(progress);
+
+            return leaderboard.cancel(false) ? snapshot : leaderboard.join();
+        } catch (final ExecutionException ex) {
+            throw new CompletionException(ex.getCause());
+        } catch (final InterruptedException ex) {
+            leaderboard.cancel(false);
+            Thread.currentThread().interrupt();
+
+            return Either.left(new RequestCancelledError());
+        }
+    }
+
+    // A computation which is done answers on its own, and one already in the cache has no progress to show
+    private Either<DomainError, Leaderboard> snapshotOf(final Option<LeaderboardProgress> progress) {
+        return progress.map(LeaderboardProgress::snapshot)
+                .getOrElse(() -> Either.left(new DeadlineExceededError()));
+    }
+
+    // Computations cancelled because everybody waiting for them left
+    private void recordCancelled() {
+        meterRegistry.counter("organization.cancelled").increment();
+    }
+
+    // Only the computed leaderboards are recorded, the cached ones tell nothing about the organizations
+    private void recordAggregation(final Timer.Sample sample, final int repositories, final int contributors) {
+        sample.stop(Timer.builder("organization.aggregation")
+                .description("Computing the leaderboard of an organization")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        DistributionSummary.builder("organization.repositories")
+                .description("Repositories of an organization")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(repositories);
+        DistributionSummary.builder("organization.contributors")
+                .description("Distinct contributors of an organization")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(contributors);
+    }
+
+    private Either<DomainError, Option<Integer>> validateLimit(final Option<Integer> limit) {
+        if (limit.exists(value -> value < 1)) {
+            return Either.left(new InvalidLimitError("Limit must be a positive number."));
+        }
+
+        return Either.right(limit);
+    }
+
+    // A request may shorten the default deadline, but never extend it
+    private Either<DomainError, Duration> validateDeadline(final Option<Duration> deadline) {
+        if (deadline.exists(value -> value.isNegative() || value.isZero())) {
+            return Either.left(new InvalidDeadlineError("Deadline must be a positive number."));
+        }
+
+        return Either.right(deadline.filter(value -> value.compareTo(defaultDeadline) < 0).getOrElse(defaultDeadline));
+    }
+
+    private Either<DomainError, Seq<String>> validateOrganizations(final Seq<String> organizationNames) {
+        if (organizationNames.isEmpty() || organizationNames.exists(name -> name == null || name.isBlank())) {
+            return Either.left(new BlankOrganisationNameError("Organization names cannot be blank."));
+        }
+
+        return Either.right(organizationNames);
     }
 
-    private Seq<ContributorDto> sortAndMergeContributorsEntries(final Seq<Seq<Contributor>> contributors) {
-        return contributors
-                .flatMap(Function.identity())
-                .groupBy(Contributor::getLogin)
-                .values()
-                .flatMap(contributorContributions -> contributorContributions
-                        .reduceOption((contribution, otherContribution) -> new Contributor(contribution.getLogin(),
-                                contribution.getContributionsAmount() + otherContribution.getContributionsAmount())))
-                .sorted(Comparator.comparing(Contributor::getContributionsAmount).reversed())
-                .map(this::mapContributorToDto);
+    private Seq<ContributorDto> takeTop(final Seq<ContributorDto> leaderboard, final Option<Integer> limit) {
+        return limit.map(leaderboard::take).getOrElse(leaderboard);
     }
 
-    private ContributorDto mapContributorToDto(final Contributor contributor) {
-        return new ContributorDto(contributor.getLogin(), contributor.getContributionsAmount());
+    private LeaderboardSnapshotDto failedSnapshot(final Seq<ContributorDto> contributors,
+                                                  final int processedRepositories, final int totalRepositories,
+                                                  final DomainError error) {
+        return new LeaderboardSnapshotDto(contributors, processedRepositories, totalRepositories, false, false,
+                Option.of(error.getReason()));
     }
-}
\ No newline at end of file
+}
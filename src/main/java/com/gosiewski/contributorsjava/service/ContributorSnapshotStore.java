@@ -0,0 +1,179 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.gosiewski.contributorsjava.service.domain.Contributor;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Locale;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+// Contributors of every fetched repository, persisted so a restarted service does not have to pull them again.
+// One file per repository, so nothing but the snapshots being read is kept in memory. Layout (big endian):
+//   int magic, short version, long fetched-at epoch millis, short ETag length, ETag UTF-8 bytes (empty when unknown),
+//   int count, count x (short login length, login UTF-8 bytes, int contributions)
+@Slf4j
+@Component
+public class ContributorSnapshotStore {
+    private final static int MAGIC = 0x43545242;
+    private final static short VERSION = 1;
+
+    private final static String SNAPSHOT_EXTENSION = ".bin";
+
+    private final Option<Path> directory;
+
+    private final Duration maxAge;
+
+    private final Clock clock;
+
+    @Inject
+    public ContributorSnapshotStore(@Value("${snapshotStoreDirectory}") final String directory,
+                                    @Value("${snapshotMaxAgeSeconds}") final long maxAgeSeconds) {
+        this(Option.of(directory).filter(path -> !path.isBlank()).map(Paths::get), Duration.ofSeconds(maxAgeSeconds),
+                Clock.systemUTC());
+    }
+
+    ContributorSnapshotStore(final Option<Path> directory, final Duration maxAge, final Clock clock) {
+        this.directory = directory;
+        this.maxAge = maxAge;
+        this.clock = clock;
+    }
+
+    final Option<Seq<Contributor>> readFresh(final String ownerName, final String repoName) {
+        return readFresh(ownerName, repoName, Option.none());
+    }
+
+    // A snapshot taken after the last push stays valid no matter how old it is, nobody could change the contributors
+    final Option<Seq<Contributor>> readFresh(final String ownerName, final String repoName,
+                                             final Option<Instant> pushedAt) {
+        final var oldestAccepted = clock.instant().minus(maxAge);
+
+        return read(ownerName, repoName)
+                .filter(snapshot -> snapshot.getFetchedAt().isAfter(oldestAccepted)
+                        || pushedAt.exists(pushed -> snapshot.getFetchedAt().isAfter(pushed)))
+                .map(Snapshot::getContributors);
+    }
+
+    // Time by the clock the snapshots are judged by, for stamping the fetches written to the store
+    final Instant now() {
+        return clock.instant();
+    }
+
+    final Option<Snapshot> read(final String ownerName, final String repoName) {
+        return directory.flatMap(root -> read(snapshotPath(root, ownerName, repoName)));
+    }
+
+    // The store is only a cache, so failing to write a snapshot never fails the request. Stamped with the time the
+    // fetch started, not when it ended: a push made while the pages were being fetched may be missing from them.
+    final void write(final String ownerName, final String repoName, final Seq<Contributor> contributors,
+                     final Option<String> eTag, final Instant fetchStartedAt) {
+        directory.forEach(root -> {
+            final var path = snapshotPath(root, ownerName, repoName);
+
+            try {
+                Files.createDirectories(path.getParent());
+
+                final var temporary = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+                Files.write(temporary, encode(contributors, eTag.getOrElse(""), fetchStartedAt).array());
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final IOException ex) {
+                log.warn("Could not write contributors snapshot " + path + ":", ex);
+            }
+        });
+    }
+
+    private Option<Snapshot> read(final Path path) {
+        try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                log.warn("Ignoring contributors snapshot of unknown format " + path);
+
+                return Option.none();
+            }
+
+            final var fetchedAt = Instant.ofEpochMilli(buffer.getLong());
+            final var eTag = Option.of(readString(buffer)).filter(value -> !value.isEmpty());
+            final var count = buffer.getInt();
+
+            // Smallest entry takes 6 bytes, so a corrupted count cannot make us allocate more than the file holds
+            final var contributors = new ArrayList<Contributor>(Math.min(count, buffer.remaining() / 6));
+            for (int i = 0; i < count; i++) {
+                final var login = readString(buffer);
+                contributors.add(new Contributor(login, buffer.getInt()));
+            }
+
+            return Option.some(new Snapshot(List.ofAll(contributors), fetchedAt, eTag));
+        } catch (final NoSuchFileException ex) {
+            return Option.none();
+        } catch (final IOException | RuntimeException ex) {
+            log.warn("Could not read contributors snapshot " + path + ":", ex);
+
+            return Option.none();
+        }
+    }
+
+    private ByteBuffer encode(final Seq<Contributor> contributors, final String eTag, final Instant fetchedAt) {
+        final var eTagBytes = eTag.getBytes(UTF_8);
+        final var logins = contributors.map(contributor -> contributor.getLogin().getBytes(UTF_8));
+        final var size = 4 + 2 + 8 + 2 + eTagBytes.length + 4
+                + logins.map(login -> 2 + login.length + 4).sum().intValue();
+
+        final var buffer = ByteBuffer.allocate(size)
+                .putInt(MAGIC)
+                .putShort(VERSION)
+                .putLong(fetchedAt.toEpochMilli())
+                .putShort((short) eTagBytes.length)
+                .put(eTagBytes)
+                .putInt(contributors.size());
+
+        contributors.zip(logins).forEach(entry -> buffer
+                .putShort((short) entry._2.length)
+                .put(entry._2)
+                .putInt(entry._1.getContributionsAmount()));
+
+        return buffer;
+    }
+
+    private String readString(final ByteBuffer buffer) {
+        final var bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+
+        return new String(bytes, UTF_8);
+    }
+
+    // GitHub names are case insensitive
+    private Path snapshotPath(final Path root, final String ownerName, final String repoName) {
+        return root.resolve(encodeName(ownerName)).resolve(encodeName(repoName) + SNAPSHOT_EXTENSION);
+    }
+
+    private String encodeName(final String name) {
+        return URLEncoder.encode(name.toLowerCase(Locale.ROOT), UTF_8);
+    }
+
+    @lombok.Value
+    static class Snapshot {
+        private final Seq<Contributor> contributors;
+        private final Instant fetchedAt;
+        private final Option<String> eTag;
+    }
+}
@@ -0,0 +1,95 @@
+package com.gosiewski.contributorsjava.service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Point in time by which a request wants its answer. Handed down to every fetch made for the request: fetches
+// which would start after it are not made at all, and nobody waits for GitHub past it. Based on System.nanoTime,
+// so changes of the wall clock do not move it. Cancelled once nobody waits for the answer any more, which ends
+// the request early the same way. Counts the GitHub requests made for it as well, which may be limited.
+final class Deadline {
+    private final long expiresAtNanos;
+
+    private final boolean bounded;
+
+    private final long maxRequests;
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final CompletableFuture<Void> cancellation = new CompletableFuture<>();
+
+    private Deadline(final long expiresAtNanos, final boolean bounded, final long maxRequests) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.bounded = bounded;
+        this.maxRequests = maxRequests;
+    }
+
+    static Deadline after(final Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos(), true, Long.MAX_VALUE);
+    }
+
+    // Never passes, but can still be cancelled, so every request gets an instance of its own
+    static Deadline none() {
+        return new Deadline(0, false, Long.MAX_VALUE);
+    }
+
+    // Never passes either, but is cancelled as soon as the requests made for it would go over the limit
+    static Deadline withinRequests(final long maxRequests) {
+        return new Deadline(0, false, maxRequests);
+    }
+
+    final boolean isBounded() {
+        return bounded;
+    }
+
+    final boolean isExpired() {
+        return bounded && System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+    // Long.MAX_VALUE for no deadline, so it can be handed to timed waits as it is
+    final long remainingNanos() {
+        return bounded ? Math.max(0, expiresAtNanos - System.nanoTime()) : Long.MAX_VALUE;
+    }
+
+    // Called before every request made for it. Once the limit is reached the request is not to be made, and the
+    // deadline is cancelled, so the others made for it stop as well.
+    final boolean tryRecordRequest() {
+        if (requests.getAndUpdate(count -> count < maxRequests ? count + 1 : count) < maxRequests) {
+            return true;
+        }
+
+        cancel();
+
+        return false;
+    }
+
+    final long getRequests() {
+        return requests.get();
+    }
+
+    final void cancel() {
+        cancellation.complete(null);
+    }
+
+    final boolean isCancelled() {
+        return cancellation.isDone();
+    }
+
+    // Completes on cancellation, for waits which should end then
+    final CompletableFuture<Void> whenCancelled() {
+        return cancellation;
+    }
+
+    // Like Thread.sleep, but wakes up as soon as the deadline is cancelled
+    final void sleep(final Duration duration) throws InterruptedException {
+        try {
+            cancellation.get(duration.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException | ExecutionException ex) {
+            // Slept for the whole time
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.gosiewski.contributorsjava.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Runs the repository fetches of all the organizations being computed. Every organization queues its tasks apart
+// and the organizations take turns, so a small one waits for a few tasks at most instead of all the repositories
+// of a huge one queued before it. Interactive requests go before the background ones (refreshes), which still get
+// every BACKGROUND_TURN-th turn, so they cannot be starved.
+final class FairShareExecutor {
+    private final static int BACKGROUND_TURN = 8;
+
+    enum Lane {
+        INTERACTIVE, BACKGROUND
+    }
+
+    // The pool only provides threads: every task submitted to it runs whichever queued task's turn it is
+    private final ExecutorService workers;
+
+    // Organizations of a lane in the order they take turns, each with its own queue
+    private final EnumMap<Lane, LinkedHashMap<String, ArrayDeque<Runnable>>> lanes = new EnumMap<>(Lane.class);
+
+    private final EnumMap<Lane, Integer> queued = new EnumMap<>(Lane.class);
+
+    private long turns;
+
+    FairShareExecutor(final int threads, final MeterRegistry meterRegistry) {
+        this.workers = ExecutorServiceMetrics.monitor(meterRegistry, Executors.newFixedThreadPool(threads),
+                "contributorService");
+
+        for (final var lane : Lane.values()) {
+            lanes.put(lane, new LinkedHashMap<>());
+            queued.put(lane, 0);
+            Gauge.builder("contributorService.queued", this, executor -> executor.getQueued(lane))
+                    .description("Repository fetches waiting for their turn")
+                    .tag("lane", lane.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+    }
+
+    // GitHub does not care about the case of the names, neither do the turns
+    final Executor forOrganization(final String organizationName, final Lane lane) {
+        final var key = organizationName.toLowerCase(Locale.ROOT);
+
+        return task -> submit(key, lane, task);
+    }
+
+    private void submit(final String organizationName, final Lane lane, final Runnable task) {
+        synchronized (this) {
+            lanes.get(lane).computeIfAbsent(organizationName, name -> new ArrayDeque<>()).add(task);
+            queued.merge(lane, 1, Integer::sum);
+        }
+
+        workers.execute(() -> next().run());
+    }
+
+    // There are as many tasks in the pool as queued ones, so there is always one to take
+    private synchronized Runnable next() {
+        final var background = ++turns % BACKGROUND_TURN == 0 && getQueued(Lane.BACKGROUND) > 0;
+        final var lane = background || getQueued(Lane.INTERACTIVE) == 0 ? Lane.BACKGROUND : Lane.INTERACTIVE;
+        final var organizations = lanes.get(lane);
+
+        // The first organization takes its turn and goes to the back, if it has anything left
+        final var turn = organizations.entrySet().iterator().next();
+        final var task = turn.getValue().poll();
+        organizations.remove(turn.getKey());
+
+        if (!turn.getValue().isEmpty()) {
+            organizations.put(turn.getKey(), turn.getValue());
+        }
+
+        queued.merge(lane, -1, Integer::sum);
+
+        return task;
+    }
+
+    private synchronized int getQueued(final Lane lane) {
+        return queued.get(lane);
+    }
+}
@@ -0,0 +1,91 @@
+package com.gosiewski.contributorsjava.service;
+
+// Approximate number of recent requests per key in constant memory: a count-min sketch of 4-bit counters, sixteen
+// of them packed in a long. A key is counted in four rows and its frequency is the lowest of its four counters,
+// so collisions can only overestimate it. Once enough increments were made, all the counters are halved, so old
+// popularity fades away instead of keeping a key hot forever.
+final class FrequencySketch {
+    private final static int DEPTH = 4;
+    private final static long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private final static int MAX_COUNT = 15;
+    // Halves every 4-bit counter at once, after the word was shifted right by one
+    private final static long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+
+    private final int width;
+
+    private final int sampleSize;
+
+    private int additions;
+
+    FrequencySketch(final int expectedKeys) {
+        this.width = Integer.highestOneBit(Math.max(16, expectedKeys - 1) << 1);
+        this.table = new long[width * DEPTH / 16];
+        this.sampleSize = 10 * width;
+    }
+
+    final synchronized void increment(final String key) {
+        final var hash = spread(key.hashCode());
+        var added = false;
+
+        for (int row = 0; row < DEPTH; row++) {
+            added |= incrementAt(indexOf(hash, row));
+        }
+
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    final synchronized int frequency(final String key) {
+        final var hash = spread(key.hashCode());
+        var frequency = MAX_COUNT;
+
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, counterAt(indexOf(hash, row)));
+        }
+
+        return frequency;
+    }
+
+    private int indexOf(final int hash, final int row) {
+        var h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+
+        return row * width + ((int) h & (width - 1));
+    }
+
+    private int counterAt(final int index) {
+        return (int) ((table[index >>> 4] >>> ((index & 15) << 2)) & MAX_COUNT);
+    }
+
+    private boolean incrementAt(final int index) {
+        final var shift = (index & 15) << 2;
+        final var mask = (long) MAX_COUNT << shift;
+
+        if ((table[index >>> 4] & mask) == mask) {
+            return false;
+        }
+
+        table[index >>> 4] += 1L << shift;
+
+        return true;
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+
+        additions /= 2;
+    }
+
+    private static int spread(final int hashCode) {
+        final var h = hashCode * 0x9e3779b9;
+
+        return h ^ (h >>> 16);
+    }
+}
@@ -1,68 +1,204 @@
 package com.gosiewski.contributorsjava.service;
 
-import com.gosiewski.contributorsjava.dto.incoming.ContributorRequestDto;
-import com.gosiewski.contributorsjava.dto.incoming.RepositoryRequestDto;
 import com.gosiewski.contributorsjava.error.ApiCallError;
 import com.gosiewski.contributorsjava.error.BlankOrganisationNameError;
 import com.gosiewski.contributorsjava.error.DomainError;
 import com.gosiewski.contributorsjava.service.domain.Contributor;
 import com.gosiewski.contributorsjava.service.domain.Repository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import io.vavr.collection.List;
 import io.vavr.collection.Seq;
 import io.vavr.concurrent.Future;
+import io.vavr.concurrent.Promise;
 import io.vavr.control.Either;
-import lombok.RequiredArgsConstructor;
+import io.vavr.control.Option;
+import io.vavr.control.Try;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import javax.inject.Inject;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class GitHubApiService {
-    private final static String REPOS_URL = "https://api.github.com/orgs/%1$s/repos";
-    private final static String CONTRIBUTORS_URL = "https://api.github.com/repos/%1$s/%2$s/contributors";
+    final static String REPOS_PATH = "/orgs/%1$s/repos";
+    final static String CONTRIBUTORS_PATH = "/repos/%1$s/%2$s/contributors";
 
     private final HttpClient httpClient;
 
+    private final GraphQlRepositoryClient graphQlRepositoryClient;
+
+    private final String reposUrl;
+    private final String contributorsUrl;
+
+    private final ContributorSnapshotStore snapshotStore;
+
+    private final boolean parallelPagination;
+
+    private final boolean graphQlRepositoryListing;
+
+    // Shared by all the resources, so it bounds the number of pages being fetched at once
+    private final Executor pageExecutor;
+
+    @Inject
+    public GitHubApiService(final HttpClient httpClient, final GraphQlRepositoryClient graphQlRepositoryClient,
+                            final ContributorSnapshotStore snapshotStore,
+                            @Value("${githubApiUrl}") final String gitHubApiUrl,
+                            @Value("${parallelPagination}") final boolean parallelPagination,
+                            @Value("${maxConcurrentPages}") final int maxConcurrentPages,
+                            @Value("${graphQlRepositoryListing}") final boolean graphQlRepositoryListing,
+                            final MeterRegistry meterRegistry) {
+        this.httpClient = httpClient;
+        this.graphQlRepositoryClient = graphQlRepositoryClient;
+        this.reposUrl = gitHubApiUrl + REPOS_PATH;
+        this.contributorsUrl = gitHubApiUrl + CONTRIBUTORS_PATH;
+        this.snapshotStore = snapshotStore;
+        this.parallelPagination = parallelPagination;
+        this.graphQlRepositoryListing = graphQlRepositoryListing;
+        this.pageExecutor = ExecutorServiceMetrics.monitor(meterRegistry,
+                Executors.newFixedThreadPool(maxConcurrentPages), "pageFetching");
+    }
+
     final Either<DomainError, Seq<Repository>> getOrganizationRepos(final String organizationName) {
+        return getOrganizationRepos(organizationName, Deadline.none());
+    }
+
+    final Either<DomainError, Seq<Repository>> getOrganizationRepos(final String organizationName,
+                                                                    final Deadline deadline) {
         if (organizationName.isBlank()) {
             return Either.left(new BlankOrganisationNameError("Organization name cannot be blank."));
         }
 
-        final var url = String.format(REPOS_URL, organizationName);
+        if (graphQlRepositoryListing) {
+            return graphQlRepositoryClient.getOrganizationRepos(organizationName, deadline);
+        }
+
+        final var url = String.format(reposUrl, organizationName);
 
-        return getFullGitHubResource(url, RepositoryRequestDto.class)
-                .map(this::mapRepositoryDtos);
+        return getFullGitHubResource(url, PageDecoder.REPOSITORIES, deadline);
     }
 
     final Future<Either<DomainError, Seq<Contributor>>> getRepoContributors(final String ownerName, final String repoName) {
+        return Future.of(() -> fetchRepoContributors(ownerName, repoName, Option.none(), Deadline.none()));
+    }
+
+    final Future<Either<DomainError, Seq<Contributor>>> getRepoContributors(final String ownerName,
+                                                                          final Repository repository) {
+        return Future.of(() -> fetchRepoContributors(ownerName, repository.getName(), repository.getPushedAt(),
+                Deadline.none()));
+    }
+
+    // Fetched on the given executor, e.g. in the turns of the organization. Callbacks of the result run on the
+    // default one, so they do not wait for turns of their own.
+    final Future<Either<DomainError, Seq<Contributor>>> getRepoContributors(final String ownerName,
+                                                                          final Repository repository,
+                                                                          final Deadline deadline,
+                                                                          final Executor executor) {
+        final var result = Promise.<Either<DomainError, Seq<Contributor>>>make();
+
+        executor.execute(() -> result.complete(Try.of(() -> fetchRepoContributors(ownerName, repository.getName(),
+                repository.getPushedAt(), deadline))));
+
+        return result.future();
+    }
+
+    private Either<DomainError, Seq<Contributor>> fetchRepoContributors(final String ownerName,
+                                                                       final String repoName,
+                                                                       final Option<Instant> pushedAt,
+                                                                       final Deadline deadline) {
         if (ownerName.isBlank() || repoName.isBlank()) {
-            return Future.successful(Either.left(new ApiCallError()));
+            return Either.left(new ApiCallError());
         }
 
-        final var url = String.format(CONTRIBUTORS_URL, ownerName, repoName);
+        final var url = String.format(contributorsUrl, ownerName, repoName);
+
+        // A fresh enough snapshot, or one taken after the last push, saves all the requests
+        return snapshotStore.readFresh(ownerName, repoName, pushedAt)
+                .map(Either::<DomainError, Seq<Contributor>>right)
+                .getOrElse(() -> {
+                    final var fetchStartedAt = snapshotStore.now();
 
-        return Future.of(() -> getFullGitHubResource(url, ContributorRequestDto.class)
-                .map(this::mapContributorDtos));
+                    return getFullGitHubResource(url, PageDecoder.CONTRIBUTORS, deadline)
+                            .peek(contributors -> snapshotStore.write(ownerName, repoName, contributors,
+                                    httpClient.getCachedETag(url), fetchStartedAt));
+                });
     }
 
-    private <T> Either<DomainError, Seq<T>> getFullGitHubResource(final String url, final Class<T> clazz) {
-        return fetchMore(List.empty(), url, clazz);
+    private <T> Either<DomainError, Seq<T>> getFullGitHubResource(final String url, final PageDecoder<T> decoder,
+                                                                  final Deadline deadline) {
+        if (!parallelPagination) {
+            return collectPages(List.empty(), getPages(url, decoder, deadline));
+        }
+
+        return fetchPage(url, decoder, deadline).flatMap(firstPage -> httpClient
+                .getRemainingPageLinks(firstPage.getHeaders())
+                .map(pageUrls -> fetchAll(firstPage.getBody(), pageUrls, decoder, deadline))
+                .getOrElse(() -> httpClient.getNextPageLink(firstPage.getHeaders())
+                        .map(nextPageUrl -> collectPages(firstPage.getBody(),
+                                getPages(nextPageUrl, decoder, deadline)))
+                        .getOrElse(() -> Either.right(firstPage.getBody()))));
     }
 
-    private <T> Either<DomainError, Seq<T>> fetchMore(final List<T> acc, final String url, final Class<T> clazz) {
-        var nextPageResult = httpClient.fetchPage(url, clazz);
+    final <T> PageIterator<T> getPages(final String url, final PageDecoder<T> decoder) {
+        return getPages(url, decoder, Deadline.none());
+    }
 
-        if (nextPageResult.isLeft()) {
-            return Either.left(nextPageResult.getLeft());
+    // Pages of the resource one after another, each next one fetched while the current is being consumed
+    private <T> PageIterator<T> getPages(final String url, final PageDecoder<T> decoder, final Deadline deadline) {
+        return new PageIterator<>(url, pageUrl -> fetchPage(pageUrl, decoder, deadline), httpClient::getNextPageLink,
+                pageExecutor);
+    }
+
+    private <T> Either<DomainError, Seq<T>> fetchAll(final List<T> acc, final Seq<String> urls,
+                                                     final PageDecoder<T> decoder, final Deadline deadline) {
+        // Future.sequence keeps the order of the pages, no matter which one arrives first
+        final var pages = Future.sequence(pageExecutor, urls
+                .map(url -> Future.of(pageExecutor, () -> fetchPage(url, decoder, deadline))))
+                .get();
+
+        return Either.sequenceRight(pages)
+                .map(responses -> acc.appendAll(responses.flatMap(ResponseEntity::getBody)));
+    }
+
+    // Elements are gathered in a single buffer, instead of copying everything collected so far for every page
+    private <T> Either<DomainError, Seq<T>> collectPages(final List<T> acc, final PageIterator<T> pages) {
+        final var elements = new ArrayList<T>(acc.asJava());
+
+        while (pages.hasNext()) {
+            final var page = pages.next();
+
+            if (page.isLeft()) {
+                return Either.left(page.getLeft());
+            }
+
+            elements.addAll(page.get().getBody().asJava());
         }
 
-        final var response = nextPageResult.get();
+        return Either.right(List.ofAll(elements));
+    }
+
+    private <T> Either<DomainError, ResponseEntity<List<T>>> fetchPage(final String url,
+                                                                       final PageDecoder<T> decoder,
+                                                                       final Deadline deadline) {
+        var pageResult = httpClient.fetchPage(url, decoder, deadline);
+
+        if (pageResult.isLeft()) {
+            return Either.left(pageResult.getLeft());
+        }
+
+        final var response = pageResult.get();
 
         if (response.getBody() == null) {
             if (response.getStatusCode() == HttpStatus.NO_CONTENT) {
-                return Either.right(List.empty());
+                return Either.right(new ResponseEntity<>(List.empty(), response.getHeaders(), response.getStatusCode()));
             }
 
             logEmptyBodyError(response.toString());
@@ -70,20 +206,7 @@ public class GitHubApiService {
             return Either.left(new ApiCallError());
         }
 
-        final var nextPageUrl = httpClient.getNextPageLink(response.getHeaders());
-        if (!nextPageUrl.isEmpty()) {
-            return fetchMore(acc.appendAll(response.getBody()), nextPageUrl.get(), clazz);
-        } else {
-            return Either.right(acc.appendAll(response.getBody()));
-        }
-    }
-
-    private Seq<Contributor> mapContributorDtos(final Seq<ContributorRequestDto> dtos) {
-        return dtos.map(contributorDto -> new Contributor(contributorDto.getLogin(), contributorDto.getContributions()));
-    }
-
-    private Seq<Repository> mapRepositoryDtos(final Seq<RepositoryRequestDto> dtos) {
-        return dtos.map(repositoryDto -> new Repository(repositoryDto.getName()));
+        return Either.right(response);
     }
 
     private void logEmptyBodyError(final String response) {
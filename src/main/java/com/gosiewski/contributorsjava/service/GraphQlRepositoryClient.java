@@ -0,0 +1,296 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.gosiewski.contributorsjava.error.ApiCallError;
+import com.gosiewski.contributorsjava.error.DeadlineExceededError;
+import com.gosiewski.contributorsjava.error.DomainError;
+import com.gosiewski.contributorsjava.error.NotFoundError;
+import com.gosiewski.contributorsjava.error.RequestCancelledError;
+import com.gosiewski.contributorsjava.service.domain.Repository;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Map;
+
+// Lists repositories of an organization through the GraphQL API (v4). A page holds 100 repositories, instead of
+// 30 of the REST API, and only the fields we need are sent. Pages are chained by cursors, so they are always
+// fetched one after another. GraphQL does not accept anonymous calls, githubToken has to be set. The calls go through
+// the same circuit breaker and RateLimitScheduler as the REST ones: GitHub is down for both of them at once, and
+// each page takes a slot, so the calls hold back when asked to (Retry-After) and while the budget is low. The budget
+// of GraphQL itself is counted apart by GitHub and does not change the REST one.
+@Slf4j
+@Component
+public class GraphQlRepositoryClient {
+    private final static String ENDPOINT_NAME = "graphql-repositories";
+
+    private final static String NOT_FOUND_ERROR_TYPE = "NOT_FOUND";
+
+    final static String REPOSITORIES_QUERY = "query($owner: String!, $cursor: String) {"
+            + " organization(login: $owner) {"
+            + " repositories(first: 100, after: $cursor) {"
+            + " pageInfo { hasNextPage endCursor }"
+            + " nodes { name pushedAt updatedAt isFork isArchived diskUsage }"
+            + " } } }";
+
+    private final RestTemplate restTemplate;
+
+    private final WebClient webClient;
+
+    private final UpstreamMetrics upstreamMetrics;
+
+    private final RateLimitScheduler rateLimitScheduler;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final String graphQlUrl;
+
+    private final String gitHubToken;
+
+    @Inject
+    public GraphQlRepositoryClient(final RestTemplate restTemplate, final WebClient webClient,
+                                   final UpstreamMetrics upstreamMetrics,
+                                   final RateLimitScheduler rateLimitScheduler, final CircuitBreaker circuitBreaker,
+                                   @Value("${githubGraphQlUrl}") final String graphQlUrl,
+                                   @Value("${githubToken}") final String gitHubToken) {
+        this.restTemplate = restTemplate;
+        this.webClient = webClient;
+        this.upstreamMetrics = upstreamMetrics;
+        this.rateLimitScheduler = rateLimitScheduler;
+        this.circuitBreaker = circuitBreaker;
+        this.graphQlUrl = graphQlUrl;
+        this.gitHubToken = gitHubToken;
+    }
+
+    final Either<DomainError, Seq<Repository>> getOrganizationRepos(final String organizationName) {
+        return getOrganizationRepos(organizationName, Deadline.none());
+    }
+
+    // Pages nobody is going to read are not fetched, like the REST ones
+    final Either<DomainError, Seq<Repository>> getOrganizationRepos(final String organizationName,
+                                                                    final Deadline deadline) {
+        final var repositories = new ArrayList<Repository>();
+        Option<String> cursor = Option.none();
+
+        do {
+            final var abandoned = checkAbandoned(deadline);
+
+            if (abandoned.isDefined()) {
+                return Either.left(abandoned.get());
+            }
+
+            final var page = fetchPage(organizationName, cursor, deadline);
+
+            if (page.isLeft()) {
+                return Either.left(page.getLeft());
+            }
+
+            repositories.addAll(page.get().getRepositories().asJava());
+            cursor = page.get().getNextCursor();
+        } while (cursor.isDefined());
+
+        return Either.right(List.ofAll(repositories));
+    }
+
+    final Flux<Repository> getOrganizationReposReactive(final String organizationName) {
+        return fetchPageReactive(organizationName, Option.none())
+                .expand(page -> page.getNextCursor()
+                        .map(cursor -> fetchPageReactive(organizationName, Option.some(cursor)))
+                        .getOrElse(Mono::empty))
+                .concatMapIterable(RepositoryPage::getRepositories);
+    }
+
+    private Either<DomainError, RepositoryPage> fetchPage(final String organizationName, final Option<String> cursor,
+                                                          final Deadline deadline) {
+        // Nothing stale to serve instead, listings are not cached
+        if (!circuitBreaker.tryAcquirePermission()) {
+            upstreamMetrics.recordRejected(ENDPOINT_NAME, false);
+
+            return Either.left(new ApiCallError());
+        }
+
+        final var slot = rateLimitScheduler.acquire(deadline);
+
+        if (slot.isLeft()) {
+            return Either.left(slot.getLeft());
+        }
+
+        // The request may be over by the time the rate limit lets it go
+        final var abandoned = checkAbandoned(deadline);
+
+        if (abandoned.isDefined()) {
+            return Either.left(abandoned.get());
+        }
+
+        final var sample = upstreamMetrics.start();
+
+        try {
+            final var response = restTemplate.postForEntity(graphQlUrl,
+                    new HttpEntity<>(request(organizationName, cursor), headers()), JsonNode.class);
+            upstreamMetrics.recordRequest(sample, ENDPOINT_NAME, Integer.toString(response.getStatusCodeValue()));
+            recordAnswer(response.getStatusCode(), response.getHeaders());
+
+            return readPage(response.getBody());
+        } catch (final HttpStatusCodeException codeException) {
+            upstreamMetrics.recordRequest(sample, ENDPOINT_NAME, Integer.toString(codeException.getRawStatusCode()));
+            recordAnswer(codeException.getStatusCode(), codeException.getResponseHeaders());
+            log.error("GitHub GraphQL API responded with unexpected code:", codeException);
+
+            return Either.left(new ApiCallError());
+        } catch (final Exception ex) {
+            upstreamMetrics.recordRequest(sample, ENDPOINT_NAME, UpstreamMetrics.IO_ERROR_STATUS);
+            circuitBreaker.recordFailure();
+            log.error("HTTP call error:", ex);
+
+            return Either.left(new ApiCallError());
+        }
+    }
+
+    private Mono<RepositoryPage> fetchPageReactive(final String organizationName, final Option<String> cursor) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                upstreamMetrics.recordRejected(ENDPOINT_NAME, false);
+
+                return Mono.<JsonNode>error(new ApiCallError());
+            }
+
+            return rateLimitScheduler.schedule(Mono.defer(() -> {
+                final var sample = upstreamMetrics.start();
+
+                return webClient.post()
+                        .uri(graphQlUrl)
+                        .headers(requestHeaders -> requestHeaders.addAll(headers()))
+                        .bodyValue(request(organizationName, cursor))
+                        .retrieve()
+                        .toEntity(JsonNode.class)
+                        .doOnNext(response -> {
+                            upstreamMetrics.recordRequest(sample, ENDPOINT_NAME,
+                                    Integer.toString(response.getStatusCodeValue()));
+                            recordAnswer(response.getStatusCode(), response.getHeaders());
+                        })
+                        .doOnError(ex -> {
+                            if (ex instanceof WebClientResponseException) {
+                                final var codeException = (WebClientResponseException) ex;
+                                upstreamMetrics.recordRequest(sample, ENDPOINT_NAME,
+                                        Integer.toString(codeException.getRawStatusCode()));
+                                recordAnswer(codeException.getStatusCode(), codeException.getHeaders());
+                            } else {
+                                upstreamMetrics.recordRequest(sample, ENDPOINT_NAME, UpstreamMetrics.IO_ERROR_STATUS);
+                                circuitBreaker.recordFailure();
+                            }
+                        })
+                        .map(HttpEntity::getBody);
+            }));
+        }).onErrorMap(ex -> !(ex instanceof DomainError), ex -> {
+            log.error("GitHub GraphQL API call error:", ex);
+
+            return new ApiCallError();
+        }).flatMap(response -> readPage(response).fold(Mono::<RepositoryPage>error, Mono::just));
+    }
+
+    private void recordAnswer(final HttpStatus status, final HttpHeaders headers) {
+        if (status.is5xxServerError()) {
+            circuitBreaker.recordFailure();
+        } else {
+            circuitBreaker.recordSuccess();
+        }
+
+        rateLimitScheduler.update(headers);
+    }
+
+    private Option<DomainError> checkAbandoned(final Deadline deadline) {
+        if (deadline.isCancelled()) {
+            upstreamMetrics.recordAbandoned(ENDPOINT_NAME, "cancelled");
+
+            return Option.some(new RequestCancelledError());
+        }
+
+        if (deadline.isExpired()) {
+            upstreamMetrics.recordAbandoned(ENDPOINT_NAME, "deadline");
+
+            return Option.some(new DeadlineExceededError());
+        }
+
+        return Option.none();
+    }
+
+    private Map<String, Object> request(final String organizationName, final Option<String> cursor) {
+        final Map<String, Object> variables = cursor
+                .<Map<String, Object>>map(value -> Map.of("owner", organizationName, "cursor", value))
+                .getOrElse(() -> Map.of("owner", organizationName));
+
+        return Map.of("query", REPOSITORIES_QUERY, "variables", variables);
+    }
+
+    private HttpHeaders headers() {
+        final var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON).asJava());
+
+        if (!gitHubToken.isEmpty()) {
+            headers.set("Authorization", "bearer " + gitHubToken);
+        }
+
+        return headers;
+    }
+
+    // GraphQL answers 200 even when the query failed, errors come in the body next to (or instead of) the data
+    private Either<DomainError, RepositoryPage> readPage(final JsonNode response) {
+        final var repositories = Option.of(response)
+                .map(body -> body.path("data").path("organization").path("repositories"))
+                .filter(JsonNode::isObject);
+
+        if (repositories.isEmpty()) {
+            if (response != null && hasErrorOfType(response, NOT_FOUND_ERROR_TYPE)) {
+                return Either.left(new NotFoundError());
+            }
+
+            log.error("GitHub GraphQL API responded without repositories:\n" + response);
+
+            return Either.left(new ApiCallError());
+        }
+
+        final var pageInfo = repositories.get().path("pageInfo");
+        final var nextCursor = pageInfo.path("hasNextPage").asBoolean()
+                ? Option.of(pageInfo.path("endCursor").textValue())
+                : Option.<String>none();
+
+        return Either.right(new RepositoryPage(List.ofAll(repositories.get().path("nodes")).map(this::readRepository),
+                nextCursor));
+    }
+
+    private Repository readRepository(final JsonNode node) {
+        return new Repository(node.path("name").textValue(),
+                PageDecoder.parseTimestamp(node.path("pushedAt").textValue()),
+                PageDecoder.parseTimestamp(node.path("updatedAt").textValue()),
+                node.path("isFork").asBoolean(),
+                node.path("isArchived").asBoolean(),
+                node.path("diskUsage").asInt());
+    }
+
+    private boolean hasErrorOfType(final JsonNode response, final String type) {
+        return List.ofAll(response.path("errors")).exists(error -> type.equals(error.path("type").textValue()));
+    }
+
+    @lombok.Value
+    private static class RepositoryPage {
+        private final Seq<Repository> repositories;
+        private final Option<String> nextCursor;
+    }
+}
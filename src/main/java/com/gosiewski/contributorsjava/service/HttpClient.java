@@ -1,27 +1,46 @@
 package com.gosiewski.contributorsjava.service;
 
 import com.gosiewski.contributorsjava.error.ApiCallError;
+import com.gosiewski.contributorsjava.error.DeadlineExceededError;
 import com.gosiewski.contributorsjava.error.DomainError;
 import com.gosiewski.contributorsjava.error.NotFoundError;
+import com.gosiewski.contributorsjava.error.RequestCancelledError;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import io.vavr.collection.List;
+import io.vavr.collection.Seq;
 import io.vavr.control.Either;
 import io.vavr.control.Option;
+import io.vavr.control.Try;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.core.ResolvableType;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 @Slf4j
 @Component
@@ -39,34 +58,202 @@ public class HttpClient {
     private final static String METADATA_PREVIOUS = "prev";
     private final static String METADATA_NEXT = "next";
 
+    private final static String PAGE_QUERY_PARAM = "page";
+
+    private final static int LATENCY_SAMPLES = 1000;
+
     private final RestTemplate restTemplate;
 
+    private final ResponseCache responseCache;
+
+    private final RateLimitScheduler rateLimitScheduler;
+
+    private final UpstreamMetrics upstreamMetrics;
+
+    private final CircuitBreaker circuitBreaker;
+
     private final String gitHubToken;
 
+    private final Duration hedgeMinDelay;
+
+    private final LatencyTracker latencyTracker;
+
+    // Null when hedging is disabled
+    private final ExecutorService hedgingExecutor;
+
+    // Calls being made right now, identical calls made meanwhile wait for them instead of going to GitHub again.
+    // Completed with none when the caller making it gave up before getting any answer.
+    private final ConcurrentHashMap<InFlightKey, CompletableFuture<Option<Either<DomainError, ?>>>> inFlight =
+            new ConcurrentHashMap<>();
+
     @Inject
-    public HttpClient(final RestTemplate restTemplate, @Value("${githubToken}") final String gitHubToken) {
+    public HttpClient(final RestTemplate restTemplate, final ResponseCache responseCache,
+                      final RateLimitScheduler rateLimitScheduler, final UpstreamMetrics upstreamMetrics,
+                      final CircuitBreaker circuitBreaker, @Value("${githubToken}") final String gitHubToken,
+                      @Value("${hedgeAfterPercentile}") final double hedgeAfterPercentile,
+                      @Value("${hedgeMinDelayMillis}") final long hedgeMinDelayMillis,
+                      @Value("${hedgeMaxThreads}") final int hedgeMaxThreads,
+                      final MeterRegistry meterRegistry) {
         this.restTemplate = restTemplate;
+        this.responseCache = responseCache;
+        this.rateLimitScheduler = rateLimitScheduler;
+        this.upstreamMetrics = upstreamMetrics;
+        this.circuitBreaker = circuitBreaker;
         this.gitHubToken = gitHubToken;
+        this.hedgeMinDelay = Duration.ofMillis(hedgeMinDelayMillis);
+        this.latencyTracker = new LatencyTracker(LATENCY_SAMPLES, hedgeAfterPercentile);
+        // Calls run on threads of their own, so the caller can stop waiting for the slow one. Nothing is queued: with
+        // all the threads busy the call is made by the caller itself, without a duplicate.
+        this.hedgingExecutor = hedgeAfterPercentile > 0
+                ? ExecutorServiceMetrics.monitor(meterRegistry, new ThreadPoolExecutor(0, hedgeMaxThreads,
+                        60, TimeUnit.SECONDS, new SynchronousQueue<>()), "hedging")
+                : null;
     }
 
-    public final <T> Either<DomainError, ResponseEntity<List<T>>> fetchPage(final String url, final Class<T> clazz) {
+    @PreDestroy
+    public final void stop() {
+        if (hedgingExecutor != null) {
+            hedgingExecutor.shutdownNow();
+        }
+    }
+
+    final <T> Either<DomainError, ResponseEntity<List<T>>> fetchPage(final String url, final PageDecoder<T> decoder) {
+        return fetchPage(url, decoder, Deadline.none());
+    }
+
+    // Concurrent callers of the same page share a single call, its decoded body and its error. Each of them waits
+    // for it until its own deadline only, or until it is cancelled. The deadline of the caller making the call is
+    // its own business: when it ends the call early, the callers waiting for it make the call themselves.
+    @SuppressWarnings("unchecked")
+    final <T> Either<DomainError, ResponseEntity<List<T>>> fetchPage(final String url, final PageDecoder<T> decoder,
+                                                                    final Deadline deadline) {
+        final var abandoned = checkAbandoned(deadline, decoder.getName());
+
+        if (abandoned.isDefined()) {
+            return Either.left(abandoned.get());
+        }
+
+        final var key = new InFlightKey(url, gitHubToken);
+        final var call = new CompletableFuture<Option<Either<DomainError, ?>>>();
+        final var sameCall = inFlight.putIfAbsent(key, call);
+
+        if (sameCall != null) {
+            upstreamMetrics.recordCoalesced(decoder.getName());
+
+            return awaitSameCall(sameCall, deadline)
+                    .map(result -> (Either<DomainError, ResponseEntity<List<T>>>) result)
+                    // One of the callers waiting takes the call over
+                    .getOrElse(() -> fetchPage(url, decoder, deadline));
+        }
+
+        upstreamMetrics.recordIssued(decoder.getName());
+
         try {
-            // Add header to accept only particular API version responses
-            final var headers = new HttpHeaders();
-            headers.set(HttpHeaders.ACCEPT, GITHUB_API_V3_ACCEPT_HEADER_VALUE);
+            final var result = fetchPage(url, decoder, deadline, true);
 
-            if (!gitHubToken.isEmpty()) {
-                headers.set("Authorization", "token " + gitHubToken);
+            if (isGivenUp(result)) {
+                // Removed first, so the callers woken up do not find the very same call again
+                inFlight.remove(key, call);
+                call.complete(Option.none());
+            } else {
+                call.complete(Option.some(result));
             }
 
-            final var entity = new HttpEntity<>("parameters", headers);
+            return result;
+        } catch (final RuntimeException ex) {
+            call.completeExceptionally(ex);
 
-            return Either.right(restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    ParameterizedTypeReference.forType(ResolvableType.forClassWithGenerics(List.class, clazz).getType())));
+            throw ex;
+        } finally {
+            // Callers coming from now on get a fresh page, possibly revalidated with the ETag of this one
+            inFlight.remove(key, call);
+        }
+    }
+
+    // None when the call was given up and it is up to the caller to make it
+    private Option<Either<DomainError, ?>> awaitSameCall(
+            final CompletableFuture<Option<Either<DomainError, ?>>> sameCall, final Deadline deadline) {
+        try {
+            CompletableFuture.anyOf(sameCall, deadline.whenCancelled())
+                    .get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException ex) {
+            return Option.some(Either.left(new DeadlineExceededError()));
+        } catch (final ExecutionException ex) {
+            throw unwrap(ex.getCause());
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+
+            return Option.some(Either.left(new ApiCallError()));
+        }
+
+        // The call itself goes on for the others waiting for it
+        if (deadline.isCancelled()) {
+            return Option.some(Either.left(new RequestCancelledError()));
+        }
+
+        return sameCall.join();
+    }
+
+    // Errors which tell about the caller instead of the page: its deadline passed, it was cancelled or interrupted
+    // before GitHub was asked
+    private boolean isGivenUp(final Either<DomainError, ?> result) {
+        return result.isLeft() && (result.getLeft() instanceof DeadlineExceededError
+                || result.getLeft() instanceof RequestCancelledError
+                || Thread.currentThread().isInterrupted());
+    }
+
+    private <T> Either<DomainError, ResponseEntity<List<T>>> fetchPage(final String url, final PageDecoder<T> decoder,
+                                                                      final Deadline deadline,
+                                                                      final boolean retryWhenRateLimited) {
+        // GitHub fails anyway, a page which might be stale beats waiting for yet another error
+        if (!circuitBreaker.tryAcquirePermission()) {
+            final var stalePage = responseCache.<T>getStale(url, gitHubToken);
+            upstreamMetrics.recordRejected(decoder.getName(), stalePage.isDefined());
+
+            return stalePage
+                    .map(Either::<DomainError, ResponseEntity<List<T>>>right)
+                    .getOrElse(() -> Either.left(new ApiCallError()));
+        }
+
+        final var slot = rateLimitScheduler.acquire(deadline);
+
+        if (slot.isLeft()) {
+            return Either.left(slot.getLeft());
+        }
+
+        // The request may be over by the time the rate limit lets it go
+        final var abandoned = checkAbandoned(deadline, decoder.getName());
+
+        if (abandoned.isDefined()) {
+            return Either.left(abandoned.get());
+        }
+
+        final var cachedPage = responseCache.<T>get(url, gitHubToken);
+
+        try {
+            final var hedgeDelay = hedgingExecutor == null ? Option.<Duration>none() : getHedgeDelay();
+            final var response = hedgeDelay.isDefined()
+                    ? callHedged(url, decoder, cachedPage, hedgeDelay.get())
+                    : call(url, decoder, cachedPage);
+
+            recordAnswer(response.getStatusCode(), response.getHeaders());
+
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && cachedPage.isDefined()) {
+                return Either.right(responseCache.getNotModified(cachedPage.get()));
+            }
+
+            responseCache.put(url, gitHubToken, response);
+
+            return Either.right(response);
         } catch (final HttpStatusCodeException codeException) {
+            recordAnswer(codeException.getStatusCode(), codeException.getResponseHeaders());
+
+            if (retryWhenRateLimited && rateLimitScheduler.isRateLimited(codeException.getStatusCode(),
+                    codeException.getResponseHeaders())) {
+                // The scheduler knows about the exhausted budget now and holds the retry until it comes back
+                return fetchPage(url, decoder, deadline, false);
+            }
+
             if (codeException.getStatusCode() == HttpStatus.NOT_FOUND) {
                 return Either.left(new NotFoundError());
             } else {
@@ -75,16 +262,255 @@ public class HttpClient {
                 return Either.left(new ApiCallError());
             }
         } catch (final Exception ex) {
+            circuitBreaker.recordFailure();
             log.error("HTTP call error:", ex);
 
             return Either.left(new ApiCallError());
         }
     }
 
+    // Every answer of GitHub tells about its health and its rate limit, whether anybody is waiting for it or not
+    private void recordAnswer(final HttpStatus status, final HttpHeaders headers) {
+        if (status.is5xxServerError()) {
+            circuitBreaker.recordFailure();
+        } else {
+            circuitBreaker.recordSuccess();
+        }
+
+        rateLimitScheduler.update(headers);
+    }
+
+    // Pages nobody is going to read are not fetched: the deadline of the request passed, or everybody waiting for
+    // the answer left
+    private Option<DomainError> checkAbandoned(final Deadline deadline, final String endpoint) {
+        if (deadline.isCancelled()) {
+            upstreamMetrics.recordAbandoned(endpoint, "cancelled");
+
+            return Option.some(new RequestCancelledError());
+        }
+
+        if (deadline.isExpired()) {
+            upstreamMetrics.recordAbandoned(endpoint, "deadline");
+
+            return Option.some(new DeadlineExceededError());
+        }
+
+        return Option.none();
+    }
+
+    // A single call to GitHub, an error response is thrown as HttpStatusCodeException
+    private <T> ResponseEntity<List<T>> call(final String url, final PageDecoder<T> decoder,
+                                             final Option<ResponseCache.CachedPage<T>> cachedPage) {
+        // Add header to accept only particular API version responses
+        final var headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT, GITHUB_API_V3_ACCEPT_HEADER_VALUE);
+
+        if (!gitHubToken.isEmpty()) {
+            headers.set("Authorization", "token " + gitHubToken);
+        }
+
+        // Send validators of the cached version, so GitHub can answer with 304 instead of the whole page
+        cachedPage.forEach(page -> setValidators(headers, page));
+
+        final var sample = upstreamMetrics.start();
+        final var startedAt = System.nanoTime();
+
+        try {
+            // The body is decoded while it is being read, without buffering it or binding it to DTOs first
+            final ResponseEntity<List<T>> response = restTemplate.execute(
+                    url,
+                    HttpMethod.GET,
+                    request -> request.getHeaders().putAll(headers),
+                    clientResponse -> new ResponseEntity<>(decoder.decode(clientResponse.getBody()),
+                            clientResponse.getHeaders(), clientResponse.getStatusCode()));
+
+            upstreamMetrics.recordRequest(sample, decoder.getName(), Integer.toString(response.getStatusCodeValue()));
+            recordLatency(startedAt);
+
+            return response;
+        } catch (final HttpStatusCodeException codeException) {
+            upstreamMetrics.recordRequest(sample, decoder.getName(),
+                    Integer.toString(codeException.getRawStatusCode()));
+            recordLatency(startedAt);
+
+            throw codeException;
+        } catch (final RuntimeException ex) {
+            upstreamMetrics.recordRequest(sample, decoder.getName(), UpstreamMetrics.IO_ERROR_STATUS);
+
+            throw ex;
+        }
+    }
+
+    // Gives the call the time most calls need, then sends a duplicate and takes whichever answers first. The loser
+    // is left to finish on its own. Its page is the same as the winner's, which gets cached, but its answer still
+    // goes to the circuit breaker and the rate limit.
+    private <T> ResponseEntity<List<T>> callHedged(final String url, final PageDecoder<T> decoder,
+                                                   final Option<ResponseCache.CachedPage<T>> cachedPage,
+                                                   final Duration hedgeDelay) {
+        final CompletableFuture<ResponseEntity<List<T>>> primary;
+
+        try {
+            primary = CompletableFuture.supplyAsync(() -> call(url, decoder, cachedPage), hedgingExecutor);
+        } catch (final RejectedExecutionException busy) {
+            return call(url, decoder, cachedPage);
+        }
+
+        try {
+            return primary.get(hedgeDelay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException slow) {
+            // A hedge is worth a request only while the budget is plentiful
+            if (!rateLimitScheduler.tryAcquire()) {
+                return await(primary);
+            }
+
+            final CompletableFuture<ResponseEntity<List<T>>> hedge;
+
+            try {
+                hedge = CompletableFuture.supplyAsync(() -> call(url, decoder, cachedPage), hedgingExecutor);
+            } catch (final RejectedExecutionException busy) {
+                return await(primary);
+            }
+
+            upstreamMetrics.recordHedge(decoder.getName(), "sent");
+
+            return await(firstAnswer(primary, hedge, () -> upstreamMetrics.recordHedge(decoder.getName(), "won"),
+                    this::recordLoser));
+        } catch (final ExecutionException ex) {
+            throw unwrap(ex.getCause());
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+
+            throw new ResourceAccessException("Interrupted while waiting for GitHub");
+        }
+    }
+
+    // An error response is an answer too. Only a call which got none at all (e.g. its connection was reset) leaves
+    // it to the other one.
+    private <R> CompletableFuture<R> firstAnswer(final CompletableFuture<R> primary, final CompletableFuture<R> hedge,
+                                                 final Runnable onHedgeWon, final BiConsumer<R, Throwable> onLost) {
+        final var answer = new CompletableFuture<R>();
+        final var failedCalls = new AtomicInteger();
+
+        primary.whenComplete((result, ex) -> {
+            if (!complete(answer, failedCalls, result, ex)) {
+                onLost.accept(result, ex);
+            }
+        });
+        hedge.whenComplete((result, ex) -> {
+            if (complete(answer, failedCalls, result, ex)) {
+                onHedgeWon.run();
+            } else {
+                onLost.accept(result, ex);
+            }
+        });
+
+        return answer;
+    }
+
+    // The winner is recorded by whoever waited for it
+    private void recordLoser(final ResponseEntity<?> response, final Throwable ex) {
+        if (ex == null) {
+            recordAnswer(response.getStatusCode(), response.getHeaders());
+
+            return;
+        }
+
+        final var cause = ex instanceof CompletionException ? ex.getCause() : ex;
+
+        if (cause instanceof HttpStatusCodeException) {
+            final var codeException = (HttpStatusCodeException) cause;
+            recordAnswer(codeException.getStatusCode(), codeException.getResponseHeaders());
+        } else {
+            circuitBreaker.recordFailure();
+        }
+    }
+
+    private <R> boolean complete(final CompletableFuture<R> answer, final AtomicInteger failedCalls, final R result,
+                                 final Throwable ex) {
+        if (ex == null) {
+            return answer.complete(result);
+        }
+
+        final var cause = ex instanceof CompletionException ? ex.getCause() : ex;
+
+        if (cause instanceof HttpStatusCodeException || failedCalls.incrementAndGet() == 2) {
+            return answer.completeExceptionally(cause);
+        }
+
+        return false;
+    }
+
+    private <R> R await(final CompletableFuture<R> call) {
+        try {
+            return call.join();
+        } catch (final CompletionException ex) {
+            throw unwrap(ex.getCause());
+        }
+    }
+
+    private RuntimeException unwrap(final Throwable ex) {
+        return ex instanceof RuntimeException ? (RuntimeException) ex : new ResourceAccessException(ex.getMessage());
+    }
+
+    private Option<Duration> getHedgeDelay() {
+        return latencyTracker.getPercentile()
+                .map(latency -> latency.compareTo(hedgeMinDelay) < 0 ? hedgeMinDelay : latency);
+    }
+
+    private void recordLatency(final long startedAt) {
+        latencyTracker.record(Duration.ofNanos(System.nanoTime() - startedAt));
+    }
+
+    public final Option<String> getCachedETag(final String url) {
+        return responseCache.getETag(url, gitHubToken);
+    }
+
+    private void setValidators(final HttpHeaders headers, final ResponseCache.CachedPage<?> page) {
+        if (page.getETag() != null) {
+            headers.setIfNoneMatch(page.getETag());
+        }
+        if (page.getLastModified() != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, page.getLastModified());
+        }
+    }
+
     public final Option<String> getNextPageLink(final HttpHeaders httpHeaders) {
         return Option.of(parseLinkHeader(httpHeaders).nextPage);
     }
 
+    // Derives links to all the pages between "next" and "last" (both inclusive), so they can be fetched at once.
+    // Empty when the range cannot be trusted, e.g. "last" is missing or points to a different resource than "next".
+    public final Option<Seq<String>> getRemainingPageLinks(final HttpHeaders httpHeaders) {
+        final var pagination = parseLinkHeader(httpHeaders);
+
+        if (pagination.nextPage == null || pagination.lastPage == null) {
+            return Option.none();
+        }
+
+        final var nextPage = UriComponentsBuilder.fromUriString(pagination.nextPage);
+        final var lastPage = UriComponentsBuilder.fromUriString(pagination.lastPage);
+
+        if (!withoutPageNumber(nextPage).equals(withoutPageNumber(lastPage))) {
+            return Option.none();
+        }
+
+        return getPageNumber(nextPage)
+                .flatMap(first -> getPageNumber(lastPage).map(last -> List.rangeClosed(first, last)))
+                .map(pages -> pages.map(page -> nextPage.cloneBuilder()
+                        .replaceQueryParam(PAGE_QUERY_PARAM, page)
+                        .build()
+                        .toUriString()));
+    }
+
+    private Option<Integer> getPageNumber(final UriComponentsBuilder link) {
+        return Option.of(link.build().getQueryParams().getFirst(PAGE_QUERY_PARAM))
+                .flatMap(page -> Try.of(() -> Integer.parseInt(page)).toOption());
+    }
+
+    private String withoutPageNumber(final UriComponentsBuilder link) {
+        return link.cloneBuilder().replaceQueryParam(PAGE_QUERY_PARAM).build().toUriString();
+    }
+
     // Mostly from:
     // https://github.com/eclipse/egit-github/blob/master/org.eclipse.egit.github.core/src/org/eclipse/egit/github/core/client/PageLinks.java#L43-75
     // Did not want to implement my own parser for pagination header, neither to add a library for 2 requests.
@@ -142,4 +568,11 @@ public class HttpClient {
         private String previousPage;
         private String nextPage;
     }
+
+    // The token is a part of the key, pages fetched with different credentials may differ
+    @lombok.Value
+    private static class InFlightKey {
+        private final String url;
+        private final String token;
+    }
 }
@@ -0,0 +1,54 @@
+package com.gosiewski.contributorsjava.service;
+
+import io.vavr.control.Option;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+// Latencies of the last calls, telling how long a call usually takes. The percentile is recomputed only every
+// few recorded calls, so asking for it on every call costs next to nothing.
+final class LatencyTracker {
+    // Fewer calls than this do not tell what is usual yet
+    private final static int MIN_SAMPLES = 100;
+    private final static int RECOMPUTE_EVERY = 32;
+
+    private final long[] samples;
+
+    private final double percentile;
+
+    private int next;
+    private int count;
+
+    private int recordedSinceComputed;
+    private Option<Duration> computed = Option.none();
+
+    LatencyTracker(final int size, final double percentile) {
+        this.samples = new long[Math.max(size, MIN_SAMPLES)];
+        this.percentile = percentile;
+    }
+
+    final synchronized void record(final Duration latency) {
+        samples[next] = latency.toNanos();
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        recordedSinceComputed++;
+    }
+
+    // Empty until enough calls were recorded
+    final synchronized Option<Duration> getPercentile() {
+        if (count < MIN_SAMPLES) {
+            return Option.none();
+        }
+
+        if (computed.isEmpty() || recordedSinceComputed >= RECOMPUTE_EVERY) {
+            final var sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+
+            final var index = (int) Math.ceil(percentile / 100 * count) - 1;
+            computed = Option.of(Duration.ofNanos(sorted[Math.max(0, Math.min(index, count - 1))]));
+            recordedSinceComputed = 0;
+        }
+
+        return computed;
+    }
+}
@@ -0,0 +1,227 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gosiewski.contributorsjava.dto.outgoing.ContributorDto;
+import com.gosiewski.contributorsjava.error.DomainError;
+import com.gosiewski.contributorsjava.service.domain.Leaderboard;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Merged leaderboards per organization. Weighted by the number of contributors, so a few huge organizations
+// cannot keep everything else out. Errors and partial leaderboards are never cached. Keeps track of how often
+// every organization is asked for, so the popular ones can be refreshed before they expire, and of how many callers
+// wait for every computation, so the ones everybody gave up on can be cancelled.
+@Component
+public class LeaderboardCache {
+    // Organizations told apart by the popularity sketch, more of them only makes the counts less exact
+    private final static int TRACKED_ORGANIZATIONS = 4096;
+
+    private final AsyncCache<String, Seq<ContributorDto>> leaderboards;
+
+    private final Duration ttl;
+
+    private final FrequencySketch popularity = new FrequencySketch(TRACKED_ORGANIZATIONS);
+
+    // Computations in flight, by the promise they are to complete
+    private final ConcurrentHashMap<CompletableFuture<Seq<ContributorDto>>, Computation> computations =
+            new ConcurrentHashMap<>();
+
+    @Inject
+    public LeaderboardCache(@Value("${leaderboardCacheTtlSeconds}") final long ttlSeconds,
+                            @Value("${leaderboardCacheMaxContributors}") final long maxContributors) {
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.leaderboards = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumWeight(maxContributors)
+                .weigher((String organizationName, Seq<ContributorDto> contributors) -> contributors.size())
+                .buildAsync();
+    }
+
+    // Concurrent misses for the same organization share a single computation, started by the first caller. All of
+    // them get its result, a partial one included. A caller which is not interested any more cancels the future it
+    // got, and once all of them did so, the future returned by the loader is cancelled too.
+    final CompletableFuture<Either<DomainError, Leaderboard>> get(
+            final String organizationName,
+            final Supplier<CompletableFuture<Either<DomainError, Leaderboard>>> loader) {
+        popularity.increment(organizationName);
+
+        while (true) {
+            final var promise = new CompletableFuture<Seq<ContributorDto>>();
+            final var computation = new Computation(organizationName, promise);
+            computations.put(promise, computation);
+
+            final var inFlight = leaderboards.asMap().putIfAbsent(organizationName, promise);
+
+            if (inFlight == null) {
+                return computation.start(loader);
+            }
+
+            computations.remove(promise);
+
+            final var sameComputation = computations.get(inFlight);
+
+            if (sameComputation != null && sameComputation.join()) {
+                return sameComputation.await();
+            }
+
+            if (sameComputation == null && inFlight.isDone()) {
+                return inFlight.handle(this::toEither);
+            }
+
+            // Abandoned a moment ago and on its way out of the cache, a fresh computation takes its place
+            leaderboards.asMap().remove(organizationName, inFlight);
+        }
+    }
+
+    // Only leaderboards which are already computed, never waits for the in-flight ones
+    final Option<Seq<ContributorDto>> getIfPresent(final String organizationName) {
+        popularity.increment(organizationName);
+
+        return getComputed(organizationName);
+    }
+
+    // Approximate number of recent requests for the organization, up to 15
+    final int getPopularity(final String organizationName) {
+        return popularity.frequency(organizationName);
+    }
+
+    // Computed leaderboards which expire within the given time
+    final Seq<String> getExpiringWithin(final Duration window) {
+        final var minAgeNanos = ttl.minus(window).toNanos();
+
+        return leaderboards.synchronous().policy().expireAfterWrite()
+                .map(expiration -> List.ofAll(leaderboards.asMap().keySet())
+                        .filter(organizationName -> getComputed(organizationName).isDefined())
+                        .filter(organizationName -> {
+                            final var age = expiration.ageOf(organizationName, TimeUnit.NANOSECONDS);
+
+                            return age.isPresent() && age.getAsLong() >= minAgeNanos;
+                        }))
+                .orElse(List.empty());
+    }
+
+    // Swaps in a recomputed leaderboard, which starts its time to live anew. Until then the old one is served.
+    final void replace(final String organizationName, final Seq<ContributorDto> leaderboard) {
+        leaderboards.put(organizationName, CompletableFuture.completedFuture(leaderboard));
+    }
+
+    private Option<Seq<ContributorDto>> getComputed(final String organizationName) {
+        return Option.of(leaderboards.getIfPresent(organizationName))
+                .filter(leaderboard -> leaderboard.isDone() && !leaderboard.isCompletedExceptionally())
+                .map(CompletableFuture::join);
+    }
+
+    private CompletableFuture<Either<DomainError, Leaderboard>> load(
+            final Supplier<CompletableFuture<Either<DomainError, Leaderboard>>> loader) {
+        try {
+            return loader.get();
+        } catch (final RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private Either<DomainError, Leaderboard> toEither(final Seq<ContributorDto> leaderboard, final Throwable error) {
+        if (error == null) {
+            return Either.right(Leaderboard.complete(leaderboard));
+        }
+
+        final var cause = error instanceof CompletionException ? error.getCause() : error;
+
+        if (cause instanceof PartialLeaderboard) {
+            return Either.right(((PartialLeaderboard) cause).getLeaderboard());
+        }
+
+        if (cause instanceof DomainError) {
+            return Either.left((DomainError) cause);
+        }
+
+        throw new CompletionException(cause);
+    }
+
+    // A leaderboard being computed, together with the number of callers waiting for it
+    private class Computation {
+        private final String organizationName;
+
+        private final CompletableFuture<Seq<ContributorDto>> promise;
+
+        // Nobody can join once it drops to zero
+        private final AtomicInteger waiters = new AtomicInteger(1);
+
+        private volatile CompletableFuture<Either<DomainError, Leaderboard>> result;
+
+        Computation(final String organizationName, final CompletableFuture<Seq<ContributorDto>> promise) {
+            this.organizationName = organizationName;
+            this.promise = promise;
+        }
+
+        CompletableFuture<Either<DomainError, Leaderboard>> start(
+                final Supplier<CompletableFuture<Either<DomainError, Leaderboard>>> loader) {
+            result = load(loader);
+            result.whenComplete((leaderboard, ex) -> {
+                // Failed futures are dropped by the cache, so the next request tries again
+                if (ex != null) {
+                    promise.completeExceptionally(ex);
+                } else if (leaderboard.isLeft()) {
+                    promise.completeExceptionally(leaderboard.getLeft());
+                } else if (leaderboard.get().isComplete()) {
+                    promise.complete(leaderboard.get().getContributors());
+                } else {
+                    promise.completeExceptionally(new PartialLeaderboard(leaderboard.get()));
+                }
+
+                computations.remove(promise);
+            });
+
+            return await();
+        }
+
+        boolean join() {
+            return waiters.getAndUpdate(count -> count == 0 ? 0 : count + 1) > 0;
+        }
+
+        CompletableFuture<Either<DomainError, Leaderboard>> await() {
+            final var answer = promise.handle(LeaderboardCache.this::toEither);
+            answer.whenComplete((leaderboard, ex) -> {
+                if (answer.isCancelled()) {
+                    leave();
+                }
+            });
+
+            return answer;
+        }
+
+        private void leave() {
+            if (waiters.decrementAndGet() == 0 && !promise.isDone()) {
+                leaderboards.asMap().remove(organizationName, promise);
+                computations.remove(promise);
+                result.cancel(false);
+            }
+        }
+    }
+
+    // Passes a partial leaderboard to the callers sharing its computation the way the cache drops it, as a failure
+    @Getter
+    private static class PartialLeaderboard extends RuntimeException {
+        private final Leaderboard leaderboard;
+
+        PartialLeaderboard(final Leaderboard leaderboard) {
+            super(null, null, false, false);
+            this.leaderboard = leaderboard;
+        }
+    }
+}
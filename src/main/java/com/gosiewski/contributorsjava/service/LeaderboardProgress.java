@@ -0,0 +1,32 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.gosiewski.contributorsjava.error.DeadlineExceededError;
+import com.gosiewski.contributorsjava.error.DomainError;
+import com.gosiewski.contributorsjava.service.domain.Leaderboard;
+import io.vavr.collection.Seq;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+
+// What a computation of a leaderboard got so far. The computation runs until the default deadline, callers which
+// asked for a shorter one take a snapshot of it when theirs passes.
+final class LeaderboardProgress {
+    private final ContributionsAccumulator accumulator = new ContributionsAccumulator();
+
+    private volatile Option<Seq<String>> repositories = Option.none();
+
+    final ContributionsAccumulator getAccumulator() {
+        return accumulator;
+    }
+
+    final void listed(final Seq<String> repositories) {
+        this.repositories = Option.some(repositories);
+    }
+
+    // Nothing to show before all the repositories are listed and some of them added
+    final Either<DomainError, Leaderboard> snapshot() {
+        return repositories
+                .map(accumulator::snapshot)
+                .filter(leaderboard -> leaderboard.getCompleteness() > 0)
+                .toEither(DeadlineExceededError::new);
+    }
+}
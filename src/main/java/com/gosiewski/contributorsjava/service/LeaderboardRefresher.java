@@ -0,0 +1,156 @@
+package com.gosiewski.contributorsjava.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Recomputes leaderboards of the most requested organizations shortly before they expire, so their users keep
+// getting cached responses instead of paying for the whole fan-out every time the cache expires. Refreshes have
+// a share of every rate limit window of their own and stop as soon as requests would have to be paced, so they
+// never take the budget interactive requests need. The requests actually made are counted, and a refresh which
+// runs out of the budget is stopped halfway.
+@Slf4j
+@Component
+public class LeaderboardRefresher {
+    // Organizations computed by the reactive client only, the budget left stops them if they turn out bigger
+    private final static long UNKNOWN_COST = 1;
+
+    private final ContributorService contributorService;
+
+    private final LeaderboardCache leaderboardCache;
+
+    private final RateLimitScheduler rateLimitScheduler;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Duration refreshAhead;
+
+    private final int maxOrganizations;
+
+    private final int minRequests;
+
+    private final double rateLimitShare;
+
+    private final int pacingThreshold;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    private Instant windowResetAt = Instant.EPOCH;
+    private long spentInWindow;
+
+    @Inject
+    public LeaderboardRefresher(final ContributorService contributorService, final LeaderboardCache leaderboardCache,
+                                final RateLimitScheduler rateLimitScheduler, final MeterRegistry meterRegistry,
+                                @Value("${refreshAheadSeconds}") final long refreshAheadSeconds,
+                                @Value("${refreshAheadMaxOrganizations}") final int maxOrganizations,
+                                @Value("${refreshAheadMinRequests}") final int minRequests,
+                                @Value("${refreshAheadRateLimitShare}") final double rateLimitShare,
+                                @Value("${rateLimitPacingThreshold}") final int pacingThreshold) {
+        this.contributorService = contributorService;
+        this.leaderboardCache = leaderboardCache;
+        this.rateLimitScheduler = rateLimitScheduler;
+        this.meterRegistry = meterRegistry;
+        this.refreshAhead = Duration.ofSeconds(refreshAheadSeconds);
+        this.maxOrganizations = maxOrganizations;
+        this.minRequests = minRequests;
+        this.rateLimitShare = rateLimitShare;
+        this.pacingThreshold = pacingThreshold;
+    }
+
+    @PostConstruct
+    public final void start() {
+        if (refreshAhead.isZero()) {
+            return;
+        }
+
+        // Often enough for every leaderboard to be looked at a few times within its refresh window
+        final var period = Math.max(1, refreshAhead.getSeconds() / 4);
+
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refreshExpiringLeaderboards();
+            } catch (final RuntimeException ex) {
+                // An exception would cancel all the following runs
+                log.error("Refreshing leaderboards failed:", ex);
+            }
+        }, period, period, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public final void stop() {
+        scheduler.shutdownNow();
+    }
+
+    // The most popular of the leaderboards about to expire first, as many as the budget allows
+    final void refreshExpiringLeaderboards() {
+        final var candidates = leaderboardCache.getExpiringWithin(refreshAhead)
+                .map(organizationName -> Tuple.of(organizationName, leaderboardCache.getPopularity(organizationName)))
+                .filter(candidate -> candidate._2 >= minRequests)
+                .sortBy(candidate -> -candidate._2)
+                .take(maxOrganizations)
+                .map(Tuple2::_1);
+
+        for (final var organizationName : candidates) {
+            final var estimatedCost = contributorService.getRequestCost(organizationName).getOrElse(UNKNOWN_COST);
+            final var budget = getBudget();
+
+            if (estimatedCost > budget) {
+                recordOverBudget(organizationName);
+
+                return;
+            }
+
+            final var deadline = Deadline.withinRequests(budget);
+            final var result = contributorService.refreshContributorsByOrganization(organizationName, deadline);
+            spentInWindow += deadline.getRequests();
+
+            if (result.isRight()) {
+                meterRegistry.counter("leaderboard.refreshes", "result", "refreshed").increment();
+            } else if (deadline.isCancelled()) {
+                // Ran out of the budget halfway, the requests made so far are lost
+                recordOverBudget(organizationName);
+
+                return;
+            } else {
+                meterRegistry.counter("leaderboard.refreshes", "result", "error").increment();
+                log.warn("Refreshing leaderboard of " + organizationName + " failed: " + result.getLeft().getReason());
+            }
+        }
+    }
+
+    // Every window of the rate limit gives refreshes the same share of it, and none of its last requests. Zero
+    // while the budget is not known yet.
+    private long getBudget() {
+        final var stats = rateLimitScheduler.getStats();
+
+        if (stats.getLimit() < 0 || stats.getRemaining() < 0) {
+            return 0;
+        }
+
+        if (!stats.getResetAt().equals(windowResetAt)) {
+            windowResetAt = stats.getResetAt();
+            spentInWindow = 0;
+        }
+
+        final var share = (long) (stats.getLimit() * rateLimitShare) - spentInWindow;
+
+        return Math.max(0, Math.min(share, stats.getRemaining() - pacingThreshold));
+    }
+
+    private void recordOverBudget(final String organizationName) {
+        meterRegistry.counter("leaderboard.refreshes", "result", "over_budget").increment();
+        log.debug("Rate limit budget of refreshes spent, " + organizationName + " left to expire");
+    }
+}
@@ -0,0 +1,157 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.gosiewski.contributorsjava.service.domain.Contributor;
+import com.gosiewski.contributorsjava.service.domain.Repository;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import io.vavr.control.Try;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+// Reads a page of GitHub's JSON array token by token, straight into domain objects. Only the fields we use are read,
+// everything else (GitHub sends dozens of them for every element) is skipped without being materialized.
+final class PageDecoder<T> {
+    static final PageDecoder<Contributor> CONTRIBUTORS = new PageDecoder<>("contributors", PageDecoder::readContributor);
+    static final PageDecoder<Repository> REPOSITORIES = new PageDecoder<>("repositories", PageDecoder::readRepository);
+
+    // Thread-safe and expensive to create, so shared by all the decoders
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // What kind of resource the pages are, e.g. to tag the metrics of the calls
+    private final String name;
+
+    private final ElementReader<T> elementReader;
+
+    private PageDecoder(final String name, final ElementReader<T> elementReader) {
+        this.name = name;
+        this.elementReader = elementReader;
+    }
+
+    final String getName() {
+        return name;
+    }
+
+    // Null for an empty body, the same as the message converters did
+    final List<T> decode(final InputStream body) throws IOException {
+        try (final var parser = JSON_FACTORY.createParser(body)) {
+            return decode(parser);
+        }
+    }
+
+    final List<T> decode(final byte[] body) throws IOException {
+        if (body == null) {
+            return null;
+        }
+
+        try (final var parser = JSON_FACTORY.createParser(body)) {
+            return decode(parser);
+        }
+    }
+
+    private List<T> decode(final JsonParser parser) throws IOException {
+        final var firstToken = parser.nextToken();
+
+        // Nothing to read at all, as opposed to an empty array
+        if (firstToken == null) {
+            return null;
+        }
+        if (firstToken != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected a JSON array");
+        }
+
+        final var elements = new ArrayList<T>();
+        readElements(parser, elements::add);
+
+        return List.ofAll(elements);
+    }
+
+    private void readElements(final JsonParser parser, final Consumer<? super T> sink) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            sink.accept(elementReader.read(parser));
+        }
+
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            throw new JsonParseException(parser, "Expected only objects in the array");
+        }
+    }
+
+    private static Contributor readContributor(final JsonParser parser) throws IOException {
+        String login = null;
+        var contributions = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final var field = parser.getCurrentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "login":
+                    login = parser.getValueAsString();
+                    break;
+                case "contributions":
+                    contributions = parser.getValueAsInt();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        return new Contributor(login, contributions);
+    }
+
+    private static Repository readRepository(final JsonParser parser) throws IOException {
+        String name = null;
+        String pushedAt = null;
+        String updatedAt = null;
+        var fork = false;
+        var archived = false;
+        var size = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final var field = parser.getCurrentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "name":
+                    name = parser.getValueAsString();
+                    break;
+                case "pushed_at":
+                    pushedAt = parser.getValueAsString();
+                    break;
+                case "updated_at":
+                    updatedAt = parser.getValueAsString();
+                    break;
+                case "fork":
+                    fork = parser.getValueAsBoolean();
+                    break;
+                case "archived":
+                    archived = parser.getValueAsBoolean();
+                    break;
+                case "size":
+                    size = parser.getValueAsInt();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        return new Repository(name, parseTimestamp(pushedAt), parseTimestamp(updatedAt), fork, archived, size);
+    }
+
+    static Option<Instant> parseTimestamp(final String timestamp) {
+        return Option.of(timestamp).flatMap(value -> Try.of(() -> Instant.parse(value)).toOption());
+    }
+
+    @FunctionalInterface
+    private interface ElementReader<T> {
+        // Called with the parser at START_OBJECT of the element, has to consume it up to its END_OBJECT
+        T read(JsonParser parser) throws IOException;
+    }
+}
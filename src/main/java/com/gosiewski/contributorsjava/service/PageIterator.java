@@ -0,0 +1,60 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.gosiewski.contributorsjava.error.DomainError;
+import io.vavr.collection.List;
+import io.vavr.concurrent.Future;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+// Walks a paginated resource lazily, following "next" links. As soon as a page is handed out, the one after it
+// is already being fetched, so its latency overlaps with whatever the consumer does with the current page.
+// Ends after the last page or right after the first error.
+final class PageIterator<T> implements Iterator<Either<DomainError, ResponseEntity<List<T>>>> {
+    private final Function<String, Either<DomainError, ResponseEntity<List<T>>>> pageFetcher;
+
+    private final Function<HttpHeaders, Option<String>> nextPageLink;
+
+    private final Executor executor;
+
+    private Option<Future<Either<DomainError, ResponseEntity<List<T>>>>> upcomingPage;
+
+    PageIterator(final String url, final Function<String, Either<DomainError, ResponseEntity<List<T>>>> pageFetcher,
+                 final Function<HttpHeaders, Option<String>> nextPageLink, final Executor executor) {
+        this.pageFetcher = pageFetcher;
+        this.nextPageLink = nextPageLink;
+        this.executor = executor;
+        this.upcomingPage = Option.of(prefetch(url));
+    }
+
+    @Override
+    public final boolean hasNext() {
+        return upcomingPage.isDefined();
+    }
+
+    @Override
+    public final Either<DomainError, ResponseEntity<List<T>>> next() {
+        if (upcomingPage.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        final var page = upcomingPage.get().get();
+
+        upcomingPage = page
+                .toOption()
+                .flatMap(response -> nextPageLink.apply(response.getHeaders()))
+                .map(this::prefetch);
+
+        return page;
+    }
+
+    private Future<Either<DomainError, ResponseEntity<List<T>>>> prefetch(final String url) {
+        return Future.of(executor, () -> pageFetcher.apply(url));
+    }
+}
@@ -0,0 +1,217 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.gosiewski.contributorsjava.error.ApiCallError;
+import com.gosiewski.contributorsjava.error.DomainError;
+import com.gosiewski.contributorsjava.error.RateLimitExceededError;
+import com.gosiewski.contributorsjava.error.RequestCancelledError;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.inject.Inject;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Every GitHub call reserves a slot here first. The budget is learned from the X-RateLimit-* headers: while it is
+// plentiful requests go right away, below the pacing threshold they are spread evenly until the window resets,
+// and once it is gone (or GitHub asked for Retry-After) they wait for the reset instead of failing with 403.
+@Slf4j
+@Component
+public class RateLimitScheduler {
+    private final static String LIMIT_HEADER_NAME = "X-RateLimit-Limit";
+    private final static String REMAINING_HEADER_NAME = "X-RateLimit-Remaining";
+    private final static String RESET_HEADER_NAME = "X-RateLimit-Reset";
+    private final static String RESOURCE_HEADER_NAME = "X-RateLimit-Resource";
+
+    private final static String CORE_RESOURCE = "core";
+
+    private final static long UNKNOWN = -1;
+
+    private final int pacingThreshold;
+
+    private final Duration maxWait;
+
+    private final Clock clock;
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private long limit = UNKNOWN;
+    private long remaining = UNKNOWN;
+    private Instant resetAt = Instant.EPOCH;
+    private Instant retryAfter = Instant.EPOCH;
+    private Instant nextSlot = Instant.EPOCH;
+
+    @Inject
+    public RateLimitScheduler(@Value("${rateLimitPacingThreshold}") final int pacingThreshold,
+                              @Value("${rateLimitMaxWaitSeconds}") final long maxWaitSeconds) {
+        this(pacingThreshold, Duration.ofSeconds(maxWaitSeconds), Clock.systemUTC());
+    }
+
+    RateLimitScheduler(final int pacingThreshold, final Duration maxWait, final Clock clock) {
+        this.pacingThreshold = pacingThreshold;
+        this.maxWait = maxWait;
+        this.clock = clock;
+    }
+
+    final Either<DomainError, Duration> acquire() {
+        return acquire(Deadline.none());
+    }
+
+    // Blocks the calling thread until the request may be sent. Cancelling the deadline ends the wait early, the
+    // caller checks it before sending anything. A deadline out of its requests gets no slot at all.
+    final Either<DomainError, Duration> acquire(final Deadline deadline) {
+        if (!deadline.tryRecordRequest()) {
+            return Either.left(new RequestCancelledError());
+        }
+
+        final var reservation = reserve();
+
+        if (reservation.isRight() && !reservation.get().isZero()) {
+            queued.incrementAndGet();
+            try {
+                deadline.sleep(reservation.get());
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+
+                return Either.left(new ApiCallError());
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+
+        return reservation;
+    }
+
+    // For requests which are worth sending only right away, e.g. a hedge of a slow call: never waits, and never
+    // takes the last requests of the window, which are paced for the ones that have to be made
+    final synchronized boolean tryAcquire() {
+        final var now = clock.instant();
+
+        if (remaining != UNKNOWN && !now.isBefore(resetAt)) {
+            remaining = UNKNOWN;
+        }
+
+        if (now.isBefore(retryAfter) || (remaining != UNKNOWN && remaining < pacingThreshold)) {
+            return false;
+        }
+
+        if (remaining > 0) {
+            remaining--;
+        }
+
+        return true;
+    }
+
+    // Delays the subscription to the request instead of blocking a thread
+    final <T> Mono<T> schedule(final Mono<T> request) {
+        return Mono.defer(() -> {
+            final var reservation = reserve();
+
+            if (reservation.isLeft()) {
+                return Mono.error(reservation.getLeft());
+            }
+
+            if (reservation.get().isZero()) {
+                return request;
+            }
+
+            queued.incrementAndGet();
+
+            return Mono.delay(reservation.get())
+                    .doFinally(signal -> queued.decrementAndGet())
+                    .then(request);
+        });
+    }
+
+    synchronized Either<DomainError, Duration> reserve() {
+        final var now = clock.instant();
+
+        // Budget of the previous window is meaningless, the next response tells the new one
+        if (remaining != UNKNOWN && !now.isBefore(resetAt)) {
+            remaining = UNKNOWN;
+        }
+
+        var slot = now.isBefore(retryAfter) ? retryAfter : now;
+
+        if (remaining == 0) {
+            slot = slot.isBefore(resetAt) ? resetAt : slot;
+        } else if (remaining > 0 && remaining < pacingThreshold) {
+            slot = slot.isBefore(nextSlot) ? nextSlot : slot;
+            nextSlot = slot.plus(Duration.between(now, resetAt).dividedBy(remaining));
+        }
+
+        final var wait = Duration.between(now, slot);
+
+        if (wait.compareTo(maxWait) > 0) {
+            log.warn("GitHub rate limit exhausted, next request possible in " + wait);
+
+            return Either.left(new RateLimitExceededError());
+        }
+
+        if (remaining > 0) {
+            remaining--;
+        }
+
+        return Either.right(wait);
+    }
+
+    // Responses arrive out of order, so within the same window only a lower budget is taken into account. Only the
+    // budget of the REST API ("core") is tracked, GitHub counts the other ones (e.g. GraphQL) apart. Retry-After
+    // holds back everything.
+    final synchronized void update(final HttpHeaders headers) {
+        if (headers == null) {
+            return;
+        }
+
+        final var headerRemaining = getLongHeader(headers, REMAINING_HEADER_NAME);
+        final var headerReset = getLongHeader(headers, RESET_HEADER_NAME).map(Instant::ofEpochSecond);
+        final var core = Option.of(headers.getFirst(RESOURCE_HEADER_NAME)).forAll(CORE_RESOURCE::equals);
+
+        if (core && headerRemaining.isDefined() && headerReset.isDefined()) {
+            if (headerReset.get().isAfter(resetAt) || remaining == UNKNOWN) {
+                resetAt = headerReset.get();
+                remaining = headerRemaining.get();
+                limit = getLongHeader(headers, LIMIT_HEADER_NAME).getOrElse(limit);
+            } else {
+                remaining = Math.min(remaining, headerRemaining.get());
+            }
+        }
+
+        getLongHeader(headers, HttpHeaders.RETRY_AFTER)
+                .forEach(seconds -> retryAfter = clock.instant().plusSeconds(seconds));
+    }
+
+    // GitHub signals both primary and secondary rate limits with 403 (or 429) and these headers
+    final boolean isRateLimited(final HttpStatus status, final HttpHeaders headers) {
+        return (status == HttpStatus.FORBIDDEN || status == HttpStatus.TOO_MANY_REQUESTS)
+                && headers != null
+                && (headers.containsKey(HttpHeaders.RETRY_AFTER)
+                || getLongHeader(headers, REMAINING_HEADER_NAME).contains(0L));
+    }
+
+    public final synchronized Stats getStats() {
+        return new Stats(limit, remaining, resetAt, queued.get());
+    }
+
+    private Option<Long> getLongHeader(final HttpHeaders headers, final String name) {
+        return Option.of(headers.getFirst(name))
+                .flatMap(value -> Try.of(() -> Long.parseLong(value.trim())).toOption());
+    }
+
+    @lombok.Value
+    public static class Stats {
+        // Both -1 until GitHub tells them, remaining again in every new window
+        private final long limit;
+        private final long remaining;
+        private final Instant resetAt;
+        private final int queued;
+    }
+}
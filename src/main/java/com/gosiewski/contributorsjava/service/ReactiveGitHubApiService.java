@@ -0,0 +1,165 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.gosiewski.contributorsjava.error.ApiCallError;
+import com.gosiewski.contributorsjava.error.BlankOrganisationNameError;
+import com.gosiewski.contributorsjava.service.domain.Contributor;
+import com.gosiewski.contributorsjava.service.domain.Repository;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.inject.Inject;
+import java.time.Instant;
+
+import static com.gosiewski.contributorsjava.service.GitHubApiService.CONTRIBUTORS_PATH;
+import static com.gosiewski.contributorsjava.service.GitHubApiService.REPOS_PATH;
+
+// Non-blocking counterpart of GitHubApiService, composing the pages as publishers instead of waiting for them
+@Slf4j
+@Service
+public class ReactiveGitHubApiService {
+    private final ReactiveHttpClient reactiveHttpClient;
+
+    private final GraphQlRepositoryClient graphQlRepositoryClient;
+
+    private final String reposUrl;
+    private final String contributorsUrl;
+
+    private final ContributorSnapshotStore snapshotStore;
+
+    // Used only for the pagination links, which are the same no matter how the page was fetched
+    private final HttpClient httpClient;
+
+    private final boolean parallelPagination;
+
+    private final int maxConcurrentPages;
+
+    private final boolean graphQlRepositoryListing;
+
+    @Inject
+    public ReactiveGitHubApiService(final ReactiveHttpClient reactiveHttpClient, final HttpClient httpClient,
+                                    final GraphQlRepositoryClient graphQlRepositoryClient,
+                                    final ContributorSnapshotStore snapshotStore,
+                                    @Value("${githubApiUrl}") final String gitHubApiUrl,
+                                    @Value("${parallelPagination}") final boolean parallelPagination,
+                                    @Value("${maxConcurrentPages}") final int maxConcurrentPages,
+                                    @Value("${graphQlRepositoryListing}") final boolean graphQlRepositoryListing) {
+        this.reactiveHttpClient = reactiveHttpClient;
+        this.graphQlRepositoryClient = graphQlRepositoryClient;
+        this.reposUrl = gitHubApiUrl + REPOS_PATH;
+        this.contributorsUrl = gitHubApiUrl + CONTRIBUTORS_PATH;
+        this.snapshotStore = snapshotStore;
+        this.httpClient = httpClient;
+        this.parallelPagination = parallelPagination;
+        this.maxConcurrentPages = maxConcurrentPages;
+        this.graphQlRepositoryListing = graphQlRepositoryListing;
+    }
+
+    final Flux<Repository> getOrganizationRepos(final String organizationName) {
+        if (organizationName.isBlank()) {
+            return Flux.error(new BlankOrganisationNameError("Organization name cannot be blank."));
+        }
+
+        if (graphQlRepositoryListing) {
+            return graphQlRepositoryClient.getOrganizationReposReactive(organizationName);
+        }
+
+        final var url = String.format(reposUrl, organizationName);
+
+        return getFullGitHubResource(url, PageDecoder.REPOSITORIES);
+    }
+
+    final Mono<Seq<Contributor>> getRepoContributors(final String ownerName, final String repoName) {
+        return getRepoContributors(ownerName, repoName, Option.none());
+    }
+
+    final Mono<Seq<Contributor>> getRepoContributors(final String ownerName, final Repository repository) {
+        return getRepoContributors(ownerName, repository.getName(), repository.getPushedAt());
+    }
+
+    private Mono<Seq<Contributor>> getRepoContributors(final String ownerName, final String repoName,
+                                                       final Option<Instant> pushedAt) {
+        if (ownerName.isBlank() || repoName.isBlank()) {
+            return Mono.error(new ApiCallError());
+        }
+
+        final var url = String.format(contributorsUrl, ownerName, repoName);
+
+        // Snapshots live on disk, so they are read and written off the event loop
+        return Mono.fromCallable(() -> snapshotStore.readFresh(ownerName, repoName, pushedAt))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(snapshot -> snapshot
+                        .map(Mono::just)
+                        .getOrElse(() -> fetchRepoContributors(ownerName, repoName, url)));
+    }
+
+    private Mono<Seq<Contributor>> fetchRepoContributors(final String ownerName, final String repoName,
+                                                         final String url) {
+        // Start of the fetch is taken on subscription, not when the publisher is put together
+        return Mono.defer(() -> {
+            final var fetchStartedAt = snapshotStore.now();
+
+            return getFullGitHubResource(url, PageDecoder.CONTRIBUTORS)
+                    .collectList()
+                    .<Seq<Contributor>>map(contributors -> List.ofAll(contributors))
+                    .flatMap(contributors -> Mono.fromRunnable(() -> snapshotStore.write(ownerName, repoName,
+                            contributors, reactiveHttpClient.getCachedETag(url), fetchStartedAt))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .thenReturn(contributors));
+        });
+    }
+
+    private <T> Flux<T> getFullGitHubResource(final String url, final PageDecoder<T> decoder) {
+        return fetchPage(url, decoder)
+                .flatMapMany(firstPage -> Flux.fromIterable(firstPage.getBody())
+                        .concatWith(fetchRemainingPages(firstPage.getHeaders(), decoder)));
+    }
+
+    private <T> Flux<T> fetchRemainingPages(final HttpHeaders headers, final PageDecoder<T> decoder) {
+        final Option<Seq<String>> pageUrls = parallelPagination
+                ? httpClient.getRemainingPageLinks(headers)
+                : Option.none();
+
+        if (pageUrls.isDefined()) {
+            // Pages are requested at once, but emitted in their original order
+            return Flux.fromIterable(pageUrls.get())
+                    .flatMapSequential(pageUrl -> fetchPage(pageUrl, decoder), maxConcurrentPages)
+                    .flatMapIterable(ResponseEntity::getBody);
+        }
+
+        // Follows "next" links page by page, each following page is requested as soon as the previous one arrives
+        return httpClient.getNextPageLink(headers)
+                .map(nextPageUrl -> fetchPage(nextPageUrl, decoder)
+                        .expand(page -> httpClient.getNextPageLink(page.getHeaders())
+                                .map(pageUrl -> fetchPage(pageUrl, decoder))
+                                .getOrElse(Mono::empty))
+                        .concatMapIterable(ResponseEntity::getBody))
+                .getOrElse(Flux::empty);
+    }
+
+    private <T> Mono<ResponseEntity<List<T>>> fetchPage(final String url, final PageDecoder<T> decoder) {
+        return reactiveHttpClient.fetchPage(url, decoder).<ResponseEntity<List<T>>>flatMap(response -> {
+            if (response.getBody() == null) {
+                if (response.getStatusCode() == HttpStatus.NO_CONTENT) {
+                    return Mono.just(new ResponseEntity<>(List.<T>empty(), response.getHeaders(),
+                            response.getStatusCode()));
+                }
+
+                log.error("GitHub responded with empty body:\n" + response.toString());
+
+                return Mono.error(new ApiCallError());
+            }
+
+            return Mono.just(response);
+        });
+    }
+}
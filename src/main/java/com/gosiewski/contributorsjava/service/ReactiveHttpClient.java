@@ -0,0 +1,173 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.gosiewski.contributorsjava.error.ApiCallError;
+import com.gosiewski.contributorsjava.error.DomainError;
+import com.gosiewski.contributorsjava.error.NotFoundError;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Non-blocking counterpart of HttpClient. Errors are signalled as DomainErrors, so they can be told apart
+// from the ones of the transport itself.
+@Slf4j
+@Component
+public class ReactiveHttpClient {
+    private final static String GITHUB_API_V3_ACCEPT_HEADER_VALUE = "application/vnd.github.v3+json";
+
+    private final WebClient webClient;
+
+    private final ResponseCache responseCache;
+
+    private final RateLimitScheduler rateLimitScheduler;
+
+    private final UpstreamMetrics upstreamMetrics;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final String gitHubToken;
+
+    @Inject
+    public ReactiveHttpClient(final WebClient webClient, final ResponseCache responseCache,
+                              final RateLimitScheduler rateLimitScheduler, final UpstreamMetrics upstreamMetrics,
+                              final CircuitBreaker circuitBreaker, @Value("${githubToken}") final String gitHubToken) {
+        this.webClient = webClient;
+        this.responseCache = responseCache;
+        this.rateLimitScheduler = rateLimitScheduler;
+        this.upstreamMetrics = upstreamMetrics;
+        this.circuitBreaker = circuitBreaker;
+        this.gitHubToken = gitHubToken;
+    }
+
+    final <T> Mono<ResponseEntity<List<T>>> fetchPage(final String url, final PageDecoder<T> decoder) {
+        return fetchPage(url, decoder, true);
+    }
+
+    private <T> Mono<ResponseEntity<List<T>>> fetchPage(final String url, final PageDecoder<T> decoder,
+                                                       final boolean retryWhenRateLimited) {
+        return Mono.defer(() -> {
+            // GitHub fails anyway, a page which might be stale beats waiting for yet another error
+            if (!circuitBreaker.tryAcquirePermission()) {
+                final var stalePage = responseCache.<T>getStale(url, gitHubToken);
+                upstreamMetrics.recordRejected(decoder.getName(), stalePage.isDefined());
+
+                return stalePage.map(Mono::just)
+                        .getOrElse(() -> Mono.error(new ApiCallError()));
+            }
+
+            return call(url, decoder, retryWhenRateLimited);
+        });
+    }
+
+    private <T> Mono<ResponseEntity<List<T>>> call(final String url, final PageDecoder<T> decoder,
+                                                  final boolean retryWhenRateLimited) {
+        return rateLimitScheduler.schedule(Mono.defer(() -> {
+            final var cachedPage = responseCache.<T>get(url, gitHubToken);
+            final var sample = upstreamMetrics.start();
+
+            return webClient.get()
+                    .uri(url)
+                    .headers(headers -> setHeaders(headers, cachedPage))
+                    .retrieve()
+                    // Raw bytes are decoded token by token, without binding them to DTOs first
+                    .toEntity(byte[].class)
+                    .doOnNext(rawResponse -> {
+                        upstreamMetrics.recordRequest(sample, decoder.getName(),
+                                Integer.toString(rawResponse.getStatusCodeValue()));
+                        circuitBreaker.recordSuccess();
+                    })
+                    .doOnError(ex -> {
+                        upstreamMetrics.recordRequest(sample, decoder.getName(),
+                                ex instanceof WebClientResponseException
+                                        ? Integer.toString(((WebClientResponseException) ex).getRawStatusCode())
+                                        : UpstreamMetrics.IO_ERROR_STATUS);
+
+                        if (ex instanceof WebClientResponseException
+                                && !((WebClientResponseException) ex).getStatusCode().is5xxServerError()) {
+                            circuitBreaker.recordSuccess();
+                        } else {
+                            circuitBreaker.recordFailure();
+                        }
+                    })
+                    .map(rawResponse -> new ResponseEntity<>(decodeBody(decoder, rawResponse.getBody()),
+                            rawResponse.getHeaders(), rawResponse.getStatusCode()))
+                    .map(response -> {
+                        rateLimitScheduler.update(response.getHeaders());
+
+                        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && cachedPage.isDefined()) {
+                            return responseCache.getNotModified(cachedPage.get());
+                        }
+
+                        responseCache.put(url, gitHubToken, response);
+
+                        return response;
+                    });
+        })).onErrorResume(WebClientResponseException.class, ex -> {
+            rateLimitScheduler.update(ex.getHeaders());
+
+            if (retryWhenRateLimited && rateLimitScheduler.isRateLimited(ex.getStatusCode(), ex.getHeaders())) {
+                // The scheduler knows about the exhausted budget now and holds the retry until it comes back
+                return fetchPage(url, decoder, false);
+            }
+
+            return Mono.error(ex);
+        }).onErrorMap(ex -> !(ex instanceof DomainError), this::mapError);
+    }
+
+    public final Option<String> getCachedETag(final String url) {
+        return responseCache.getETag(url, gitHubToken);
+    }
+
+    private <T> void setHeaders(final HttpHeaders headers, final Option<ResponseCache.CachedPage<T>> cachedPage) {
+        // Add header to accept only particular API version responses
+        headers.set(HttpHeaders.ACCEPT, GITHUB_API_V3_ACCEPT_HEADER_VALUE);
+
+        if (!gitHubToken.isEmpty()) {
+            headers.set("Authorization", "token " + gitHubToken);
+        }
+
+        cachedPage.forEach(page -> {
+            if (page.getETag() != null) {
+                headers.setIfNoneMatch(page.getETag());
+            }
+            if (page.getLastModified() != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, page.getLastModified());
+            }
+        });
+    }
+
+    private <T> List<T> decodeBody(final PageDecoder<T> decoder, final byte[] body) {
+        try {
+            return decoder.decode(body);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private DomainError mapError(final Throwable ex) {
+        if (ex instanceof WebClientResponseException) {
+            if (((WebClientResponseException) ex).getStatusCode() == HttpStatus.NOT_FOUND) {
+                return new NotFoundError();
+            }
+
+            log.error("GitHub responded with unexpected code:", ex);
+
+            return new ApiCallError();
+        }
+
+        log.error("HTTP call error:", ex);
+
+        return new ApiCallError();
+    }
+}
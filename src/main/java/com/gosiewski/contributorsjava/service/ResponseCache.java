@@ -0,0 +1,133 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps the last decoded version of every page along with its validators, so the page can be re-requested
+// conditionally. GitHub answers such requests with 304 when nothing changed and does not count them into the rate limit.
+@Component
+public class ResponseCache {
+    // Used to weigh pages served without Content-Length, e.g. chunked ones
+    private final static int ESTIMATED_ELEMENT_BYTES = 256;
+
+    private final Cache<CacheKey, CachedPage<?>> pages;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong staleServes = new AtomicLong();
+
+    @Inject
+    public ResponseCache(@Value("${responseCacheMaxBytes}") final long maxBytes) {
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((CacheKey key, CachedPage<?> page) -> page.getWeight())
+                .build();
+    }
+
+    // Every lookup ends up upstream: either as a plain request (miss) or as a conditional one (revalidation)
+    @SuppressWarnings("unchecked")
+    final <T> Option<CachedPage<T>> get(final String url, final String token) {
+        final var page = Option.of(pages.getIfPresent(new CacheKey(url, token)));
+
+        if (page.isDefined()) {
+            revalidations.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+
+        return page.map(cachedPage -> (CachedPage<T>) cachedPage);
+    }
+
+    // For when GitHub cannot be asked, the page is served without a revalidation. Counted apart from the hits, as
+    // nobody confirmed it is still up to date.
+    @SuppressWarnings("unchecked")
+    final <T> Option<ResponseEntity<List<T>>> getStale(final String url, final String token) {
+        final var page = Option.of(pages.getIfPresent(new CacheKey(url, token)))
+                .map(cachedPage -> toResponse((CachedPage<T>) cachedPage));
+
+        if (page.isDefined()) {
+            staleServes.incrementAndGet();
+        }
+
+        return page;
+    }
+
+    // Does not count as a lookup, as no request is made with it
+    final Option<String> getETag(final String url, final String token) {
+        return Option.of(pages.getIfPresent(new CacheKey(url, token)))
+                .flatMap(page -> Option.of(page.getETag()));
+    }
+
+    // GitHub answered a revalidation with 304, so the cached page is served as if it was just fetched
+    final <T> ResponseEntity<List<T>> getNotModified(final CachedPage<T> page) {
+        hits.incrementAndGet();
+
+        return toResponse(page);
+    }
+
+    final <T> void put(final String url, final String token, final ResponseEntity<List<T>> response) {
+        final var headers = response.getHeaders();
+        final var eTag = headers.getETag();
+        final var lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+
+        if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null
+                || (eTag == null && lastModified == null)) {
+            return;
+        }
+
+        pages.put(new CacheKey(url, token),
+                new CachedPage<>(eTag, lastModified, headers, response.getBody(), weigh(response)));
+    }
+
+    public final Stats getStats() {
+        return new Stats(hits.get(), misses.get(), revalidations.get(), staleServes.get(), pages.estimatedSize());
+    }
+
+    private <T> ResponseEntity<List<T>> toResponse(final CachedPage<T> page) {
+        return new ResponseEntity<>(page.getBody(), page.getHeaders(), HttpStatus.OK);
+    }
+
+    private int weigh(final ResponseEntity<? extends List<?>> response) {
+        final var contentLength = response.getHeaders().getContentLength();
+        final var weight = contentLength > 0
+                ? contentLength
+                : (long) response.getBody().size() * ESTIMATED_ELEMENT_BYTES;
+
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    @lombok.Value
+    private static class CacheKey {
+        private final String url;
+        private final String token;
+    }
+
+    @lombok.Value
+    static class CachedPage<T> {
+        private final String eTag;
+        private final String lastModified;
+        private final HttpHeaders headers;
+        private final List<T> body;
+        private final int weight;
+    }
+
+    @lombok.Value
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long revalidations;
+        private final long staleServes;
+        private final long size;
+    }
+}
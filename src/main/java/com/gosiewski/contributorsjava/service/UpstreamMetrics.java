@@ -0,0 +1,61 @@
+package com.gosiewski.contributorsjava.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+
+// Meters of the calls to GitHub, shared by the blocking and the non-blocking client. Waiting for the rate limit
+// is not included, the timer measures GitHub (and the network) only.
+@Component
+public class UpstreamMetrics {
+    // No response at all, e.g. a timeout or a refused connection
+    final static String IO_ERROR_STATUS = "IO_ERROR";
+
+    private final MeterRegistry meterRegistry;
+
+    @Inject
+    public UpstreamMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Calls which went to GitHub, as opposed to the ones which joined an identical call already in flight
+    final void recordIssued(final String endpoint) {
+        meterRegistry.counter("github.coalescing", "endpoint", endpoint, "result", "issued").increment();
+    }
+
+    final void recordCoalesced(final String endpoint) {
+        meterRegistry.counter("github.coalescing", "endpoint", endpoint, "result", "coalesced").increment();
+    }
+
+    // Duplicates of slow calls which were sent, and the ones which answered before the original call
+    final void recordHedge(final String endpoint, final String result) {
+        meterRegistry.counter("github.hedges", "endpoint", endpoint, "result", result).increment();
+    }
+
+    // Calls not made while the circuit breaker was open, answered from the cache when possible
+    final void recordRejected(final String endpoint, final boolean servedCached) {
+        meterRegistry.counter("github.circuitbreaker.rejected", "endpoint", endpoint,
+                "result", servedCached ? "cached" : "failed").increment();
+    }
+
+    // Pages not fetched because their request was over: its deadline passed ("deadline") or nobody waited for the
+    // answer any more ("cancelled")
+    final void recordAbandoned(final String endpoint, final String reason) {
+        meterRegistry.counter("github.abandoned", "endpoint", endpoint, "reason", reason).increment();
+    }
+
+    final Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    final void recordRequest(final Timer.Sample sample, final String endpoint, final String status) {
+        sample.stop(Timer.builder("github.requests")
+                .description("Calls to the GitHub API")
+                .tag("endpoint", endpoint)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,34 @@
+package com.gosiewski.contributorsjava.service.domain;
+
+import com.gosiewski.contributorsjava.dto.outgoing.ContributorDto;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import lombok.Value;
+
+// Contributors of an organization, together with the repositories which did not make it into the leaderboard,
+// because they failed or were not fetched before the deadline of the request
+@Value
+public final class Leaderboard {
+    private final Seq<ContributorDto> contributors;
+    private final Seq<String> missingRepositories;
+    // Share of the repositories included, 1 for a complete leaderboard
+    private final double completeness;
+
+    public static Leaderboard complete(final Seq<ContributorDto> contributors) {
+        return new Leaderboard(contributors, List.empty(), 1);
+    }
+
+    public static Leaderboard partial(final Seq<ContributorDto> contributors, final Seq<String> missingRepositories,
+                                      final int repositories) {
+        return new Leaderboard(contributors, missingRepositories,
+                (repositories - missingRepositories.size()) / (double) repositories);
+    }
+
+    public boolean isComplete() {
+        return missingRepositories.isEmpty();
+    }
+
+    public Leaderboard withContributors(final Seq<ContributorDto> contributors) {
+        return new Leaderboard(contributors, missingRepositories, completeness);
+    }
+}
@@ -1,8 +1,27 @@
 package com.gosiewski.contributorsjava.service.domain;
 
+import io.vavr.control.Option;
+import lombok.AllArgsConstructor;
 import lombok.Value;
 
+import java.time.Instant;
+
 @Value
+@AllArgsConstructor
 public final class Repository {
     private final String name;
+    private final Option<Instant> pushedAt;
+    private final Option<Instant> updatedAt;
+    private final boolean fork;
+    private final boolean archived;
+    // In kilobytes, as GitHub reports it
+    private final int size;
+
+    public Repository(final String name) {
+        this(name, Option.none(), Option.none());
+    }
+
+    public Repository(final String name, final Option<Instant> pushedAt, final Option<Instant> updatedAt) {
+        this(name, pushedAt, updatedAt, false, false, 0);
+    }
 }
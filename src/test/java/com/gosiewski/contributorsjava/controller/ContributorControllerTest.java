@@ -1,10 +1,18 @@
 package com.gosiewski.contributorsjava.controller;
 
+import com.gosiewski.contributorsjava.dto.outgoing.ContributorDto;
+import com.gosiewski.contributorsjava.dto.outgoing.OrganizationLeaderboardDto;
+import com.gosiewski.contributorsjava.dto.outgoing.OrganizationsLeaderboardDto;
 import com.gosiewski.contributorsjava.error.ApiCallError;
 import com.gosiewski.contributorsjava.error.BlankOrganisationNameError;
+import com.gosiewski.contributorsjava.error.DeadlineExceededError;
+import com.gosiewski.contributorsjava.error.InvalidLimitError;
 import com.gosiewski.contributorsjava.error.NotFoundError;
 import com.gosiewski.contributorsjava.service.ContributorService;
+import com.gosiewski.contributorsjava.service.domain.Leaderboard;
+import io.vavr.collection.List;
 import io.vavr.control.Either;
+import io.vavr.control.Option;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Answers;
@@ -12,12 +20,26 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
 
 import javax.inject.Inject;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -38,11 +60,14 @@ public class ContributorControllerTest {
         final var url = String.format("/org/%1$s/contributors", organizationName);
 
         // when
-        when(contributorService.getContributorsByOrganization(organizationName))
+        when(contributorService.getLeaderboardByOrganization(organizationName, Option.none(), Option.none()))
                 .thenReturn(Either.left(new NotFoundError()));
 
         // then
-        mockMvc.perform(get(url))
+        final var asyncResult = mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isNotFound());
     }
 
@@ -53,11 +78,14 @@ public class ContributorControllerTest {
         final var url = String.format("/org/%1$s/contributors", organizationName);
 
         // when
-        when(contributorService.getContributorsByOrganization(organizationName))
+        when(contributorService.getLeaderboardByOrganization(organizationName, Option.none(), Option.none()))
                 .thenReturn(Either.left(new ApiCallError()));
 
         // then
-        mockMvc.perform(get(url))
+        final var asyncResult = mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isInternalServerError());
     }
 
@@ -68,11 +96,161 @@ public class ContributorControllerTest {
         final var url = String.format("/org/%1$s/contributors", organizationName);
 
         // when
-        when(contributorService.getContributorsByOrganization(organizationName))
+        when(contributorService.getLeaderboardByOrganization(organizationName, Option.none(), Option.none()))
                 .thenReturn(Either.left(new BlankOrganisationNameError("sample")));
 
         // then
-        mockMvc.perform(get(url))
+        final var asyncResult = mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void shouldReturn400WhenLimitNotPositive() throws Exception {
+        // given
+        final var organizationName = "exampleOrganization";
+        final var url = String.format("/org/%1$s/contributors?limit=0", organizationName);
+
+        // when
+        when(contributorService.getLeaderboardByOrganization(organizationName, Option.of(0), Option.none()))
+                .thenReturn(Either.left(new InvalidLimitError("sample")));
+
+        // then
+        final var asyncResult = mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturn304WhenETagMatches() throws Exception {
+        // given
+        final var organizationName = "exampleOrganization";
+        final var url = String.format("/org/%1$s/contributors", organizationName);
+
+        // when
+        when(contributorService.getLeaderboardByOrganization(organizationName, Option.none(), Option.none()))
+                .thenReturn(Either.right(Leaderboard.complete(List.of(new ContributorDto("sampleLogin", 5)))));
+
+        // then
+        final var firstResult = mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        final var eTag = mockMvc.perform(asyncDispatch(firstResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("sampleLogin"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        final var secondResult = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(secondResult))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void shouldReturnGzippedBodyWhenAccepted() throws Exception {
+        // given
+        final var organizationName = "exampleOrganization";
+        final var url = String.format("/org/%1$s/contributors", organizationName);
+
+        // when
+        when(contributorService.getLeaderboardByOrganization(organizationName, Option.none(), Option.none()))
+                .thenReturn(Either.right(Leaderboard.complete(List.of(new ContributorDto("sampleLogin", 5)))));
+
+        // then
+        final var asyncResult = mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        final var body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        try (final var gzipStream = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(gzipStream.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo("[{\"name\":\"sampleLogin\",\"contributions\":5}]");
+        }
+    }
+
+    @Test
+    void shouldFlagPartialLeaderboard() throws Exception {
+        // given
+        final var organizationName = "exampleOrganization";
+        final var url = String.format("/org/%1$s/contributors?deadlineMillis=500", organizationName);
+
+        // when
+        when(contributorService.getLeaderboardByOrganization(organizationName, Option.none(),
+                Option.of(Duration.ofMillis(500))))
+                .thenReturn(Either.right(Leaderboard.partial(List.of(new ContributorDto("sampleLogin", 5)),
+                        List.of("repository2", "repository3"), 3)));
+
+        // then
+        final var asyncResult = mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Leaderboard-Completeness", "0.33"))
+                .andExpect(header().string("X-Leaderboard-Missing-Repositories", "repository2,repository3"))
+                .andExpect(header().string("X-Leaderboard-Missing-Count", "2"))
+                .andExpect(jsonPath("$[0].name").value("sampleLogin"));
+    }
+
+    @Test
+    void shouldReturn504WhenDeadlineExceeded() throws Exception {
+        // given
+        final var organizationName = "exampleOrganization";
+        final var url = String.format("/org/%1$s/contributors", organizationName);
+
+        // when
+        when(contributorService.getLeaderboardByOrganization(organizationName, Option.none(), Option.none()))
+                .thenReturn(Either.left(new DeadlineExceededError()));
+
+        // then
+        final var asyncResult = mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isGatewayTimeout());
+    }
+
+    @Test
+    void shouldReturnLeaderboardsOfBatch() throws Exception {
+        // given
+        final var organizationName1 = "exampleOrganization1";
+        final var organizationName2 = "exampleOrganization2";
+        final var body = "{\"organizations\": [\"exampleOrganization1\", \"exampleOrganization2\"], "
+                + "\"combined\": true}";
+
+        // when
+        when(contributorService.getContributorsByOrganizations(List.of(organizationName1, organizationName2),
+                Option.none(), true))
+                .thenReturn(Mono.just(Either.right(new OrganizationsLeaderboardDto(List.of(
+                        new OrganizationLeaderboardDto(organizationName1,
+                                List.of(new ContributorDto("sampleLogin", 5)), Option.none()),
+                        new OrganizationLeaderboardDto(organizationName2, List.empty(), Option.of("Not found"))),
+                        Option.some(List.of(new ContributorDto("sampleLogin", 5)))))));
+
+        // then
+        final var asyncResult = mockMvc.perform(post("/orgs/contributors")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.organizations[0].contributors[0].name").value("sampleLogin"))
+                .andExpect(jsonPath("$.organizations[1].error").value("Not found"))
+                .andExpect(jsonPath("$.combined[0].contributions").value(5));
+    }
 }
@@ -0,0 +1,135 @@
+package com.gosiewski.contributorsjava.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CircuitBreakerTest {
+    private final static Instant NOW = Instant.ofEpochSecond(1_000_000);
+    private final static Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+    private final Clock clock = mock(Clock.class);
+
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void beforeEach() {
+        when(clock.instant()).thenReturn(NOW);
+        circuitBreaker = new CircuitBreaker(50, 20, OPEN_DURATION, clock);
+    }
+
+    @Test
+    void shouldStayClosedBelowFailureRate() {
+        // given
+        record(11, 9);
+
+        // when
+        final var permitted = circuitBreaker.tryAcquirePermission();
+
+        // then
+        assertThat(permitted).isTrue();
+        assertThat(circuitBreaker.getStats().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldFailFastAboveFailureRate() {
+        // given
+        record(5, 5);
+
+        // when
+        final var permitted = circuitBreaker.tryAcquirePermission();
+
+        // then
+        assertThat(permitted).isFalse();
+        assertThat(circuitBreaker.getStats().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void shouldNotOpenBeforeEnoughCalls() {
+        // given
+        record(0, 9);
+
+        // when
+        final var permitted = circuitBreaker.tryAcquirePermission();
+
+        // then
+        assertThat(permitted).isTrue();
+    }
+
+    @Test
+    void shouldLetSingleProbeThroughAfterOpenDuration() {
+        // given
+        record(0, 10);
+        when(clock.instant()).thenReturn(NOW.plus(OPEN_DURATION));
+
+        // when
+        final var probe = circuitBreaker.tryAcquirePermission();
+        final var next = circuitBreaker.tryAcquirePermission();
+
+        // then
+        assertThat(probe).isTrue();
+        assertThat(next).isFalse();
+        assertThat(circuitBreaker.getStats().getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    void shouldCloseWhenProbeSucceeds() {
+        // given
+        record(0, 10);
+        when(clock.instant()).thenReturn(NOW.plus(OPEN_DURATION));
+        circuitBreaker.tryAcquirePermission();
+
+        // when
+        circuitBreaker.recordSuccess();
+
+        // then
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.getStats().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.getStats().getCalls()).isZero();
+    }
+
+    @Test
+    void shouldOpenAgainWhenProbeFails() {
+        // given
+        record(0, 10);
+        when(clock.instant()).thenReturn(NOW.plus(OPEN_DURATION));
+        circuitBreaker.tryAcquirePermission();
+
+        // when
+        circuitBreaker.recordFailure();
+
+        // then
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+        assertThat(circuitBreaker.getStats().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void shouldNeverOpenWithEmptyWindow() {
+        // given
+        final var disabled = new CircuitBreaker(50, 0, OPEN_DURATION, clock);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            disabled.recordFailure();
+        }
+
+        // then
+        assertThat(disabled.tryAcquirePermission()).isTrue();
+    }
+
+    private void record(final int successes, final int failures) {
+        for (int i = 0; i < successes; i++) {
+            circuitBreaker.recordSuccess();
+        }
+        for (int i = 0; i < failures; i++) {
+            circuitBreaker.recordFailure();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.gosiewski.contributorsjava.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionPoolTest {
+
+    @Test
+    void shouldReportIdlePoolUpToConfiguredSize() {
+        // given
+        final var connectionPool = new ConnectionPool(16);
+
+        // when
+        final var stats = connectionPool.getStats();
+
+        // then
+        assertThat(stats).isEqualTo(new ConnectionPool.Stats(0, 0, 0, 16));
+    }
+}
@@ -0,0 +1,86 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.gosiewski.contributorsjava.dto.outgoing.ContributorDto;
+import com.gosiewski.contributorsjava.service.domain.Contributor;
+import io.vavr.collection.List;
+import io.vavr.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ContributionsAccumulatorTest {
+
+    @Test
+    void shouldSumAndSortContributions() {
+        // given
+        final var accumulator = new ContributionsAccumulator();
+        final var expectedResult = List.of(
+                new ContributorDto("exampleContributor2", 92),
+                new ContributorDto("exampleContributor1", 45),
+                new ContributorDto("exampleContributor3", 1)
+        );
+
+        // when
+        accumulator.add(List.of(
+                new Contributor("exampleContributor1", 45),
+                new Contributor("exampleContributor2", 12)
+        ));
+        accumulator.add(List.of(
+                new Contributor("exampleContributor2", 80),
+                new Contributor("exampleContributor3", 1)
+        ));
+
+        // then
+        assertThat(accumulator.getSortedContributors()).containsExactlyElementsOf(expectedResult);
+    }
+
+    @Test
+    void shouldSumRepositoriesAddedConcurrently() {
+        // given
+        final var accumulator = new ContributionsAccumulator();
+        final var executor = Executors.newFixedThreadPool(8);
+        final var repository = List.of(
+                new Contributor("exampleContributor1", 2),
+                new Contributor("exampleContributor2", 1)
+        );
+        final var expectedResult = List.of(
+                new ContributorDto("exampleContributor1", 2000),
+                new ContributorDto("exampleContributor2", 1000)
+        );
+
+        // when
+        Future.sequence(executor, List.range(0, 1000)
+                .map(i -> Future.run(executor, () -> accumulator.add(repository))))
+                .await();
+
+        // then
+        assertThat(accumulator.getSortedContributors()).containsExactlyElementsOf(expectedResult);
+    }
+
+    @Test
+    void shouldSelectTopContributors() {
+        // given
+        final var accumulator = new ContributionsAccumulator();
+        final var expectedResult = List.of(
+                new ContributorDto("exampleContributor4", 300),
+                new ContributorDto("exampleContributor2", 92)
+        );
+
+        // when
+        accumulator.add(List.of(
+                new Contributor("exampleContributor1", 45),
+                new Contributor("exampleContributor2", 12),
+                new Contributor("exampleContributor4", 300)
+        ));
+        accumulator.add(List.of(
+                new Contributor("exampleContributor2", 80),
+                new Contributor("exampleContributor3", 1)
+        ));
+
+        // then
+        assertThat(accumulator.getTopContributors(2)).containsExactlyElementsOf(expectedResult);
+        assertThat(accumulator.getTopContributors(10)).hasSize(4);
+    }
+}
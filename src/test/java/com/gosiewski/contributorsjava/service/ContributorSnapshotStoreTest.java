@@ -0,0 +1,169 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.gosiewski.contributorsjava.service.domain.Contributor;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.vavr.api.VavrAssertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ContributorSnapshotStoreTest {
+
+    private final static Instant NOW = Instant.ofEpochSecond(1_000_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadWrittenSnapshot() {
+        // given
+        final var store = new ContributorSnapshotStore(Option.of(directory), Duration.ofHours(1),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        final var contributors = List.of(
+                new Contributor("sampleLogin", 5),
+                new Contributor("otherLogin", 12)
+        );
+
+        // when
+        store.write("ownerName", "repoName", contributors, Option.of("\"sampleETag\""), NOW);
+        final var result = store.read("OwnerName", "repoName");
+
+        // then
+        assertThat(result).isDefined();
+        assertThat(result.get().getContributors()).containsExactlyElementsOf(contributors);
+        assertThat(result.get().getFetchedAt()).isEqualTo(NOW);
+        assertThat(result.get().getETag()).contains("\"sampleETag\"");
+    }
+
+    @Test
+    void shouldIgnoreStaleSnapshot() {
+        // given
+        final var writingStore = new ContributorSnapshotStore(Option.of(directory), Duration.ofHours(1),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        final var readingStore = new ContributorSnapshotStore(Option.of(directory), Duration.ofHours(1),
+                Clock.fixed(NOW.plus(Duration.ofHours(2)), ZoneOffset.UTC));
+
+        // when
+        writingStore.write("ownerName", "repoName", List.of(new Contributor("sampleLogin", 5)), Option.none(),
+                NOW);
+
+        // then
+        assertThat(readingStore.readFresh("ownerName", "repoName")).isEmpty();
+        assertThat(writingStore.readFresh("ownerName", "repoName")).isDefined();
+    }
+
+    @Test
+    void shouldReuseOldSnapshotWhenNothingWasPushedSince() {
+        // given
+        final var writingStore = new ContributorSnapshotStore(Option.of(directory), Duration.ofHours(1),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        final var readingStore = new ContributorSnapshotStore(Option.of(directory), Duration.ofHours(1),
+                Clock.fixed(NOW.plus(Duration.ofDays(2)), ZoneOffset.UTC));
+
+        // when
+        writingStore.write("ownerName", "repoName", List.of(new Contributor("sampleLogin", 5)), Option.none(),
+                NOW);
+
+        // then
+        assertThat(readingStore.readFresh("ownerName", "repoName",
+                Option.of(NOW.minus(Duration.ofDays(1))))).isDefined();
+        assertThat(readingStore.readFresh("ownerName", "repoName",
+                Option.of(NOW.plus(Duration.ofDays(1))))).isEmpty();
+    }
+
+    @Test
+    void shouldNotReuseSnapshotOfFetchDuringWhichRepositoryWasPushed() {
+        // given
+        final var writingStore = new ContributorSnapshotStore(Option.of(directory), Duration.ofHours(1),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        final var readingStore = new ContributorSnapshotStore(Option.of(directory), Duration.ofHours(1),
+                Clock.fixed(NOW.plus(Duration.ofDays(2)), ZoneOffset.UTC));
+
+        // when
+        writingStore.write("ownerName", "repoName", List.of(new Contributor("sampleLogin", 5)), Option.none(),
+                NOW.minus(Duration.ofMinutes(1)));
+
+        // then
+        assertThat(readingStore.readFresh("ownerName", "repoName",
+                Option.of(NOW.minus(Duration.ofSeconds(30))))).isEmpty();
+    }
+
+    @Test
+    void shouldStampReactivelyFetchedSnapshotWithTimeFetchStarted() {
+        // given
+        final var now = new AtomicReference<>(NOW);
+        final var clock = mock(Clock.class);
+        when(clock.instant()).thenAnswer(invocation -> now.get());
+        final var store = new ContributorSnapshotStore(Option.of(directory), Duration.ofHours(1), clock);
+
+        final var mockedReactiveHttpClient = mock(ReactiveHttpClient.class);
+        final var mockedHttpClient = mock(HttpClient.class);
+        // The page takes a minute to arrive
+        when(mockedReactiveHttpClient.fetchPage(any(), eq(PageDecoder.CONTRIBUTORS)))
+                .thenReturn(Mono.fromSupplier(() -> {
+                    now.set(NOW.plus(Duration.ofMinutes(1)));
+
+                    return new ResponseEntity<>(List.of(new Contributor("sampleLogin", 5)), new HttpHeaders(),
+                            HttpStatus.OK);
+                }));
+        when(mockedReactiveHttpClient.getCachedETag(any())).thenReturn(Option.none());
+        when(mockedHttpClient.getNextPageLink(any())).thenReturn(Option.none());
+
+        final var service = new ReactiveGitHubApiService(mockedReactiveHttpClient, mockedHttpClient,
+                mock(GraphQlRepositoryClient.class), store, "https://api.github.com", false, 1, false);
+
+        // when
+        service.getRepoContributors("ownerName", "repoName").block();
+
+        // then
+        assertThat(store.read("ownerName", "repoName").get().getFetchedAt()).isEqualTo(NOW);
+    }
+
+    @Test
+    void shouldIgnoreCorruptedSnapshot() throws IOException {
+        // given
+        final var store = new ContributorSnapshotStore(Option.of(directory), Duration.ofHours(1),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        Files.createDirectories(directory.resolve("ownername"));
+        Files.write(directory.resolve("ownername").resolve("reponame.bin"), new byte[]{1, 2, 3});
+
+        // when
+        final var result = store.read("ownerName", "repoName");
+
+        // then
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void shouldNotStoreAnythingWhenDisabled() {
+        // given
+        final var store = new ContributorSnapshotStore(Option.none(), Duration.ofHours(1),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // when
+        store.write("ownerName", "repoName", List.of(new Contributor("sampleLogin", 5)), Option.none(),
+                NOW);
+
+        // then
+        assertThat(store.read("ownerName", "repoName")).isEmpty();
+    }
+}
@@ -2,7 +2,6 @@ package com.gosiewski.contributorsjava.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.gosiewski.contributorsjava.dto.incoming.ContributorRequestDto;
 import com.gosiewski.contributorsjava.error.ApiCallError;
 import com.gosiewski.contributorsjava.error.NotFoundError;
 import com.gosiewski.contributorsjava.service.domain.Contributor;
@@ -24,8 +23,10 @@ import org.springframework.web.client.RestTemplate;
 import javax.inject.Inject;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Map;
 
 import static org.assertj.vavr.api.VavrAssertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
@@ -85,8 +86,8 @@ public class ContributorsFetchingTest {
                 new Contributor("sampleLogin", 123)
         );
         final var response = expectedResult
-                .map(contributor -> new ContributorRequestDto(contributor.getLogin(),
-                        contributor.getContributionsAmount()));
+                .map(contributor -> Map.of("login", contributor.getLogin(),
+                        "contributions", contributor.getContributionsAmount()));
         final var url = String.format("https://api.github.com/repos/%1$s/%2$s/contributors", ownerName, repoName);
 
         // when
@@ -117,8 +118,8 @@ public class ContributorsFetchingTest {
                 new Contributor("sampleLogin", 3)
         );
         final var response = expectedResult
-                .map(contributor -> new ContributorRequestDto(contributor.getLogin(),
-                        contributor.getContributionsAmount()));
+                .map(contributor -> Map.of("login", contributor.getLogin(),
+                        "contributions", contributor.getContributionsAmount()));
         final var firstPageUrl = String.format("https://api.github.com/repos/%1$s/%2$s/contributors", ownerName,
                 repoName);
         final var secondPageUrl = String.format("https://api.github.com/repos/%1$s/%2$s/contributors?page=2", ownerName,
@@ -152,13 +153,115 @@ public class ContributorsFetchingTest {
         assertThat(result.get()).containsOnRight(expectedResult);
     }
 
+    @Test
+    void shouldFetchRemainingPagesUpToLastPage() throws URISyntaxException, JsonProcessingException {
+        //given
+        final var ownerName = "ownerName";
+        final var repoName = "repoName";
+        final var expectedResult = List.of(
+                new Contributor("sampleLogin1", 5),
+                new Contributor("sampleLogin2", 12),
+                new Contributor("sampleLogin3", 123),
+                new Contributor("sampleLogin4", 0),
+                new Contributor("sampleLogin5", 3)
+        );
+        final var response = expectedResult
+                .map(contributor -> Map.of("login", contributor.getLogin(),
+                        "contributions", contributor.getContributionsAmount()));
+        final var firstPageUrl = String.format("https://api.github.com/repos/%1$s/%2$s/contributors", ownerName,
+                repoName);
+        final var secondPageUrl = firstPageUrl + "?page=2";
+        final var thirdPageUrl = firstPageUrl + "?page=3";
+        final var firstPageHeaders = new HttpHeaders();
+        firstPageHeaders.add("Link",
+                "<" + secondPageUrl + ">; rel=\"next\",\n" +
+                "<" + thirdPageUrl + ">; rel=\"last\"");
+        final var parallelMockServer = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+
+        // when
+        parallelMockServer.expect(ExpectedCount.once(),
+                requestTo(new URI(firstPageUrl)))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .headers(firstPageHeaders)
+                        .body(mapper.writeValueAsString(response.subSequence(0, 2).toJavaList()))
+                );
+
+        parallelMockServer.expect(ExpectedCount.once(),
+                requestTo(new URI(secondPageUrl)))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(mapper.writeValueAsString(response.subSequence(2, 4).toJavaList()))
+                );
+
+        parallelMockServer.expect(ExpectedCount.once(),
+                requestTo(new URI(thirdPageUrl)))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(mapper.writeValueAsString(response.subSequence(4).toJavaList()))
+                );
+
+        final var result = service.getRepoContributors(ownerName, repoName);
+
+        // then
+        assertThat(result.get()).containsOnRight(expectedResult);
+        parallelMockServer.verify();
+    }
+
+    @Test
+    void shouldServeCachedPageWhenNotModified() throws URISyntaxException, JsonProcessingException {
+        //given
+        final var ownerName = "ownerName";
+        final var repoName = "cachedRepoName";
+        final var expectedResult = List.of(
+                new Contributor("sampleLogin", 5),
+                new Contributor("otherLogin", 12)
+        );
+        final var response = expectedResult
+                .map(contributor -> Map.of("login", contributor.getLogin(),
+                        "contributions", contributor.getContributionsAmount()));
+        final var url = String.format("https://api.github.com/repos/%1$s/%2$s/contributors", ownerName, repoName);
+        final var eTag = "\"sampleETag\"";
+        final var responseHeaders = new HttpHeaders();
+        responseHeaders.setETag(eTag);
+
+        // when
+        mockServer.expect(ExpectedCount.once(),
+                requestTo(new URI(url)))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .headers(responseHeaders)
+                        .body(mapper.writeValueAsString(response.toJavaList()))
+                );
+
+        mockServer.expect(ExpectedCount.once(),
+                requestTo(new URI(url)))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED)
+                        .headers(responseHeaders)
+                );
+
+        final var firstResult = service.getRepoContributors(ownerName, repoName);
+        final var secondResult = service.getRepoContributors(ownerName, repoName);
+
+        // then
+        assertThat(firstResult.get()).containsOnRight(expectedResult);
+        assertThat(secondResult.get()).containsOnRight(expectedResult);
+        mockServer.verify();
+    }
+
     @Test
     void shouldFetchEmptyResult() throws URISyntaxException, JsonProcessingException {
         //given
         final var ownerName = "ownerName";
         final var repoName = "repoName";
         final Seq<Contributor> expectedResult = List.empty();
-        final Seq<ContributorRequestDto> response = List.empty();
+        final Seq<Map<String, Object>> response = List.empty();
         final var url = String.format("https://api.github.com/repos/%1$s/%2$s/contributors", ownerName,
                 repoName);
 
@@ -0,0 +1,111 @@
+package com.gosiewski.contributorsjava.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A single thread, held by a blocking task until everything else is queued, so the order of the turns is exact
+class FairShareExecutorTest {
+    private final List<String> order = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch blockerStarted = new CountDownLatch(1);
+
+    private final CountDownLatch blockerReleased = new CountDownLatch(1);
+
+    private FairShareExecutor executor;
+
+    @BeforeEach
+    void beforeEach() throws InterruptedException {
+        executor = new FairShareExecutor(1, new SimpleMeterRegistry());
+        executor.forOrganization("blocker", FairShareExecutor.Lane.INTERACTIVE).execute(() -> {
+            blockerStarted.countDown();
+            try {
+                blockerReleased.await();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        blockerStarted.await();
+    }
+
+    @Test
+    void shouldLetSmallOrganizationInBetweenTasksOfBigOne() throws InterruptedException {
+        // given
+        final var done = new CountDownLatch(6);
+        submit("big", FairShareExecutor.Lane.INTERACTIVE, 5, done);
+        submit("small", FairShareExecutor.Lane.INTERACTIVE, 1, done);
+
+        // when
+        blockerReleased.countDown();
+        done.await(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(order).containsExactly("big", "small", "big", "big", "big", "big");
+    }
+
+    @Test
+    void shouldRunInteractiveTasksBeforeBackgroundOnes() throws InterruptedException {
+        // given
+        final var done = new CountDownLatch(4);
+        submit("refreshed", FairShareExecutor.Lane.BACKGROUND, 3, done);
+        submit("requested", FairShareExecutor.Lane.INTERACTIVE, 1, done);
+
+        // when
+        blockerReleased.countDown();
+        done.await(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(order).containsExactly("requested", "refreshed", "refreshed", "refreshed");
+    }
+
+    @Test
+    void shouldNotStarveBackgroundTasks() throws InterruptedException {
+        // given
+        final var done = new CountDownLatch(11);
+        submit("refreshed", FairShareExecutor.Lane.BACKGROUND, 1, done);
+        submit("requested", FairShareExecutor.Lane.INTERACTIVE, 10, done);
+
+        // when
+        blockerReleased.countDown();
+        done.await(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(order).hasSize(11);
+        assertThat(order.indexOf("refreshed")).isLessThan(10);
+    }
+
+    @Test
+    void shouldShareTurnsRegardlessOfNameCase() throws InterruptedException {
+        // given
+        final var done = new CountDownLatch(3);
+        submit("Example", FairShareExecutor.Lane.INTERACTIVE, 1, done);
+        submit("example", FairShareExecutor.Lane.INTERACTIVE, 1, done);
+        submit("other", FairShareExecutor.Lane.INTERACTIVE, 1, done);
+
+        // when
+        blockerReleased.countDown();
+        done.await(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(order).containsExactly("Example", "other", "example");
+    }
+
+    private void submit(final String organizationName, final FairShareExecutor.Lane lane, final int tasks,
+                        final CountDownLatch done) {
+        final var turns = executor.forOrganization(organizationName, lane);
+
+        for (int i = 0; i < tasks; i++) {
+            turns.execute(() -> {
+                order.add(organizationName);
+                done.countDown();
+            });
+        }
+    }
+}
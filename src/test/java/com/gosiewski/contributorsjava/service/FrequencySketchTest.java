@@ -0,0 +1,56 @@
+package com.gosiewski.contributorsjava.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FrequencySketchTest {
+
+    @Test
+    void shouldCountIncrements() {
+        // given
+        final var sketch = new FrequencySketch(64);
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("popular");
+        }
+        sketch.increment("unpopular");
+
+        // then
+        assertThat(sketch.frequency("popular")).isEqualTo(5);
+        assertThat(sketch.frequency("unpopular")).isEqualTo(1);
+        assertThat(sketch.frequency("unknown")).isEqualTo(0);
+    }
+
+    @Test
+    void shouldNotCountAboveFifteen() {
+        // given
+        final var sketch = new FrequencySketch(64);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("popular");
+        }
+
+        // then
+        assertThat(sketch.frequency("popular")).isEqualTo(15);
+    }
+
+    @Test
+    void shouldAgeOldPopularity() {
+        // given
+        final var sketch = new FrequencySketch(16);
+
+        // when
+        for (int i = 0; i < 15; i++) {
+            sketch.increment("onceWasPopular");
+        }
+        for (int i = 0; i < 1000; i++) {
+            sketch.increment("other" + i);
+        }
+
+        // then
+        assertThat(sketch.frequency("onceWasPopular")).isLessThanOrEqualTo(8);
+    }
+}
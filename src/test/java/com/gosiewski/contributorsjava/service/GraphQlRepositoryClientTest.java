@@ -0,0 +1,168 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gosiewski.contributorsjava.error.ApiCallError;
+import com.gosiewski.contributorsjava.error.NotFoundError;
+import com.gosiewski.contributorsjava.error.RequestCancelledError;
+import com.gosiewski.contributorsjava.service.domain.Repository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import org.assertj.vavr.api.VavrAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Runs against a local stub of the GraphQL endpoint, serving two pages of repositories chained by a cursor
+class GraphQlRepositoryClientTest {
+    private final static String TOKEN = "sampleToken";
+
+    private final static String FIRST_PAGE = "{\"data\":{\"organization\":{\"repositories\":{" +
+            "\"pageInfo\":{\"hasNextPage\":true,\"endCursor\":\"cursor1\"}," +
+            "\"nodes\":[{\"name\":\"sampleRepository1\",\"pushedAt\":\"2020-02-01T10:15:30Z\"," +
+            "\"updatedAt\":null,\"isFork\":true,\"isArchived\":false,\"diskUsage\":2048}]}}}}";
+    private final static String SECOND_PAGE = "{\"data\":{\"organization\":{\"repositories\":{" +
+            "\"pageInfo\":{\"hasNextPage\":false,\"endCursor\":\"cursor2\"}," +
+            "\"nodes\":[{\"name\":\"sampleRepository2\",\"pushedAt\":null,\"updatedAt\":null," +
+            "\"isFork\":false,\"isArchived\":true,\"diskUsage\":0}]}}}}";
+    private final static String NOT_FOUND = "{\"data\":{\"organization\":null},\"errors\":[{\"type\":\"NOT_FOUND\"," +
+            "\"path\":[\"organization\"],\"message\":\"Could not resolve to an Organization\"}]}";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final java.util.List<String> receivedCursors = new CopyOnWriteArrayList<>();
+    private final java.util.List<String> receivedAuthorizations = new CopyOnWriteArrayList<>();
+
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(50, 1, Duration.ofSeconds(30),
+            Clock.systemUTC());
+
+    private HttpServer server;
+
+    private GraphQlRepositoryClient client;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/graphql", this::handle);
+        server.start();
+
+        client = new GraphQlRepositoryClient(new RestTemplate(), WebClient.create(),
+                new UpstreamMetrics(new SimpleMeterRegistry()),
+                new RateLimitScheduler(0, Duration.ofMinutes(1), Clock.systemUTC()), circuitBreaker,
+                "http://localhost:" + server.getAddress().getPort() + "/graphql", TOKEN);
+    }
+
+    @AfterEach
+    void afterEach() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldListRepositoriesFollowingCursors() {
+        // when
+        final var result = client.getOrganizationRepos("exampleName");
+
+        // then
+        VavrAssertions.assertThat(result).containsOnRight(expectedRepositories());
+        assertThat(receivedCursors).containsExactly("", "cursor1");
+        assertThat(receivedAuthorizations).containsOnly("bearer " + TOKEN);
+    }
+
+    @Test
+    void shouldListRepositoriesFollowingCursorsWithoutBlocking() {
+        // when
+        final var result = client.getOrganizationReposReactive("exampleName").collectList().block();
+
+        // then
+        assertThat(result).containsExactlyElementsOf(expectedRepositories());
+        assertThat(receivedCursors).containsExactly("", "cursor1");
+    }
+
+    @Test
+    void shouldReturnErrorWhenOrganizationNotFound() {
+        // when
+        final var result = client.getOrganizationRepos("missingName");
+
+        // then
+        VavrAssertions.assertThat(result).containsLeftInstanceOf(NotFoundError.class);
+    }
+
+    @Test
+    void shouldSignalErrorWhenOrganizationNotFoundWithoutBlocking() {
+        // when
+        final var result = client.getOrganizationReposReactive("missingName").collectList();
+
+        // then
+        assertThatThrownBy(result::block).isInstanceOf(NotFoundError.class);
+    }
+
+    @Test
+    void shouldNotCallGitHubWhileCircuitBreakerOpen() {
+        // given
+        circuitBreaker.recordFailure();
+
+        // when
+        final var result = client.getOrganizationRepos("exampleName");
+
+        // then
+        VavrAssertions.assertThat(result).containsLeftInstanceOf(ApiCallError.class);
+        assertThat(receivedCursors).isEmpty();
+    }
+
+    @Test
+    void shouldNotCallGitHubForCancelledRequest() {
+        // given
+        final var deadline = Deadline.none();
+        deadline.cancel();
+
+        // when
+        final var result = client.getOrganizationRepos("exampleName", deadline);
+
+        // then
+        VavrAssertions.assertThat(result).containsLeftInstanceOf(RequestCancelledError.class);
+        assertThat(receivedCursors).isEmpty();
+    }
+
+    private List<Repository> expectedRepositories() {
+        return List.of(
+                new Repository("sampleRepository1", Option.of(Instant.parse("2020-02-01T10:15:30Z")), Option.none(),
+                        true, false, 2048),
+                new Repository("sampleRepository2", Option.none(), Option.none(), false, true, 0)
+        );
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            final var request = mapper.readTree(exchange.getRequestBody());
+            final var variables = request.path("variables");
+            final var cursor = variables.path("cursor").asText("");
+
+            receivedCursors.add(cursor);
+            receivedAuthorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+
+            final var body = variables.path("owner").asText().equals("missingName")
+                    ? NOT_FOUND
+                    : cursor.isEmpty() ? FIRST_PAGE : SECOND_PAGE;
+            final var bytes = body.getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+    }
+}
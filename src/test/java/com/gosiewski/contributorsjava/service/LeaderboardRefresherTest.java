@@ -0,0 +1,192 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.gosiewski.contributorsjava.dto.outgoing.ContributorDto;
+import com.gosiewski.contributorsjava.error.DomainError;
+import com.gosiewski.contributorsjava.error.RequestCancelledError;
+import com.gosiewski.contributorsjava.service.domain.Leaderboard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vavr.collection.List;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeaderboardRefresherTest {
+
+    private final static Instant NOW = Instant.ofEpochSecond(1_000_000);
+
+    private ContributorService mockedContributorService;
+
+    private LeaderboardCache leaderboardCache;
+
+    private RateLimitScheduler rateLimitScheduler;
+
+    @BeforeEach
+    void beforeEach() {
+        this.mockedContributorService = mock(ContributorService.class);
+        this.leaderboardCache = new LeaderboardCache(300, 1000);
+        this.rateLimitScheduler = new RateLimitScheduler(100, Duration.ofMinutes(1),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+
+        when(mockedContributorService.getRequestCost(any())).thenReturn(Option.none());
+    }
+
+    @Test
+    void shouldRefreshOnlyPopularOrganizations() {
+        // given
+        final var refresher = refresher(100);
+        rateLimitScheduler.update(rateLimitHeaders(5000, 4000));
+        request("popularName", 3);
+        request("unpopularName", 1);
+
+        // when
+        when(mockedContributorService.refreshContributorsByOrganization(any(), any())).thenAnswer(makingRequests(10));
+
+        refresher.refreshExpiringLeaderboards();
+
+        // then
+        verify(mockedContributorService).refreshContributorsByOrganization(eq("popularName"), any());
+        verify(mockedContributorService, never()).refreshContributorsByOrganization(eq("unpopularName"), any());
+    }
+
+    @Test
+    void shouldNotRefreshWhenBudgetNearPacingThreshold() {
+        // given
+        final var refresher = refresher(100);
+        rateLimitScheduler.update(rateLimitHeaders(5000, 100));
+        request("popularName", 3);
+
+        // when
+        refresher.refreshExpiringLeaderboards();
+
+        // then
+        verify(mockedContributorService, never()).refreshContributorsByOrganization(any(), any());
+    }
+
+    @Test
+    void shouldStopWhenShareOfRateLimitSpent() {
+        // given
+        final var refresher = refresher(10);
+        rateLimitScheduler.update(rateLimitHeaders(100, 100));
+        request("mostPopularName", 4);
+        request("popularName", 3);
+
+        // when
+        // 20 requests take the whole 20% of the window
+        when(mockedContributorService.refreshContributorsByOrganization(eq("mostPopularName"), any()))
+                .thenAnswer(makingRequests(20));
+
+        refresher.refreshExpiringLeaderboards();
+
+        // then
+        verify(mockedContributorService).refreshContributorsByOrganization(eq("mostPopularName"), any());
+        verify(mockedContributorService, never()).refreshContributorsByOrganization(eq("popularName"), any());
+    }
+
+    @Test
+    void shouldStopRefreshWhichRunsOutOfBudget() {
+        // given
+        final var refresher = refresher(10);
+        final var deadline = new AtomicReference<Deadline>();
+        rateLimitScheduler.update(rateLimitHeaders(100, 100));
+        request("mostPopularName", 4);
+        request("popularName", 3);
+
+        // when
+        when(mockedContributorService.refreshContributorsByOrganization(eq("mostPopularName"), any()))
+                .thenAnswer(invocation -> {
+                    deadline.set(invocation.getArgument(1));
+                    return makingRequests(50).answer(invocation);
+                });
+
+        refresher.refreshExpiringLeaderboards();
+
+        // then
+        assertThat(deadline.get().isCancelled()).isTrue();
+        assertThat(deadline.get().getRequests()).isEqualTo(20);
+        verify(mockedContributorService, never()).refreshContributorsByOrganization(eq("popularName"), any());
+    }
+
+    @Test
+    void shouldNotStartRefreshCostingMoreThanBudgetLeft() {
+        // given
+        final var refresher = refresher(10);
+        rateLimitScheduler.update(rateLimitHeaders(100, 100));
+        request("popularName", 3);
+
+        // when
+        when(mockedContributorService.getRequestCost("popularName")).thenReturn(Option.some(21L));
+
+        refresher.refreshExpiringLeaderboards();
+
+        // then
+        verify(mockedContributorService, never()).refreshContributorsByOrganization(any(), any());
+    }
+
+    @Test
+    void shouldNotRefreshWhenBudgetUnknown() {
+        // given
+        final var refresher = refresher(100);
+        request("popularName", 3);
+
+        // when
+        refresher.refreshExpiringLeaderboards();
+
+        // then
+        verify(mockedContributorService, never()).refreshContributorsByOrganization(any(), any());
+    }
+
+    // Refreshing as long before expiry as leaderboards live, so every cached one is due
+    private LeaderboardRefresher refresher(final int pacingThreshold) {
+        return new LeaderboardRefresher(mockedContributorService, leaderboardCache, rateLimitScheduler,
+                new SimpleMeterRegistry(), 300, 10, 3, 0.2, pacingThreshold);
+    }
+
+    // Stops making requests once the deadline says so, like the GitHub clients do
+    private Answer<Either<DomainError, Leaderboard>> makingRequests(final int requests) {
+        return invocation -> {
+            final Deadline deadline = invocation.getArgument(1);
+
+            for (int i = 0; i < requests; i++) {
+                if (!deadline.tryRecordRequest()) {
+                    return Either.left(new RequestCancelledError());
+                }
+            }
+
+            return Either.right(Leaderboard.complete(List.of(new ContributorDto("exampleContributor", 2))));
+        };
+    }
+
+    private void request(final String organizationName, final int times) {
+        for (int i = 0; i < times; i++) {
+            leaderboardCache.get(organizationName, () -> CompletableFuture.completedFuture(
+                    Either.right(Leaderboard.complete(List.of(new ContributorDto("exampleContributor", 1)))))).join();
+        }
+    }
+
+    private HttpHeaders rateLimitHeaders(final long limit, final long remaining) {
+        final var headers = new HttpHeaders();
+        headers.set("X-RateLimit-Limit", String.valueOf(limit));
+        headers.set("X-RateLimit-Remaining", String.valueOf(remaining));
+        headers.set("X-RateLimit-Reset", String.valueOf(NOW.plusSeconds(600).getEpochSecond()));
+
+        return headers;
+    }
+}
@@ -1,21 +1,44 @@
 package com.gosiewski.contributorsjava.service;
 
 import com.gosiewski.contributorsjava.dto.outgoing.ContributorDto;
+import com.gosiewski.contributorsjava.dto.outgoing.LeaderboardSnapshotDto;
+import com.gosiewski.contributorsjava.dto.outgoing.OrganizationLeaderboardDto;
 import com.gosiewski.contributorsjava.error.ApiCallError;
+import com.gosiewski.contributorsjava.error.BlankOrganisationNameError;
 import com.gosiewski.contributorsjava.error.DomainError;
+import com.gosiewski.contributorsjava.error.InvalidDeadlineError;
+import com.gosiewski.contributorsjava.error.InvalidLimitError;
+import com.gosiewski.contributorsjava.error.NotFoundError;
+import com.gosiewski.contributorsjava.error.RequestCancelledError;
 import com.gosiewski.contributorsjava.service.domain.Contributor;
+import com.gosiewski.contributorsjava.service.domain.Leaderboard;
 import com.gosiewski.contributorsjava.service.domain.Repository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.vavr.collection.List;
 import io.vavr.collection.Seq;
 import io.vavr.concurrent.Future;
+import io.vavr.concurrent.Promise;
 import io.vavr.control.Either;
+import io.vavr.control.Option;
 import org.assertj.vavr.api.VavrAssertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class OrganizationContributorsFetchingTest {
@@ -24,10 +47,17 @@ public class OrganizationContributorsFetchingTest {
 
     private GitHubApiService mockedGitHubAPIService;
 
+    private ReactiveGitHubApiService mockedReactiveGitHubApiService;
+
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     void beforeEach() {
         this.mockedGitHubAPIService = mock(GitHubApiService.class);
-        this.service = new ContributorService(mockedGitHubAPIService);
+        this.mockedReactiveGitHubApiService = mock(ReactiveGitHubApiService.class);
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.service = new ContributorService(mockedGitHubAPIService, mockedReactiveGitHubApiService,
+                new LeaderboardCache(300, 1000), 32, 60000, meterRegistry);
     }
 
     @Test
@@ -62,13 +92,13 @@ public class OrganizationContributorsFetchingTest {
 
 
         // when
-        when(mockedGitHubAPIService.getOrganizationRepos(organizationName))
+        when(mockedGitHubAPIService.getOrganizationRepos(eq(organizationName), any()))
                 .thenReturn(organizationRepos);
-        when(mockedGitHubAPIService.getRepoContributors(organizationName, repositoryName1))
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName1)), any(), any()))
                 .thenReturn(repoContributors1);
-        when(mockedGitHubAPIService.getRepoContributors(organizationName, repositoryName2))
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName2)), any(), any()))
                 .thenReturn(repoContributors2);
-        when(mockedGitHubAPIService.getRepoContributors(organizationName, repositoryName3))
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName3)), any(), any()))
                 .thenReturn(repoContributors3);
 
         final var result = service.getContributorsByOrganization(organizationName);
@@ -97,13 +127,13 @@ public class OrganizationContributorsFetchingTest {
 
 
         // when
-        when(mockedGitHubAPIService.getOrganizationRepos(organizationName))
+        when(mockedGitHubAPIService.getOrganizationRepos(eq(organizationName), any()))
                 .thenReturn(organizationRepos);
-        when(mockedGitHubAPIService.getRepoContributors(organizationName, repositoryName1))
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName1)), any(), any()))
                 .thenReturn(repoContributors1);
-        when(mockedGitHubAPIService.getRepoContributors(organizationName, repositoryName2))
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName2)), any(), any()))
                 .thenReturn(repoContributors2);
-        when(mockedGitHubAPIService.getRepoContributors(organizationName, repositoryName3))
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName3)), any(), any()))
                 .thenReturn(repoContributors3);
 
         final var result = service.getContributorsByOrganization(organizationName);
@@ -121,7 +151,7 @@ public class OrganizationContributorsFetchingTest {
         final Seq<ContributorDto> expectedResult = List.empty();
 
         // when
-        when(mockedGitHubAPIService.getOrganizationRepos(organizationName))
+        when(mockedGitHubAPIService.getOrganizationRepos(eq(organizationName), any()))
                 .thenReturn(organizationRepos);
 
         final var result = service.getContributorsByOrganization(organizationName);
@@ -161,13 +191,13 @@ public class OrganizationContributorsFetchingTest {
 
 
         // when
-        when(mockedGitHubAPIService.getOrganizationRepos(organizationName))
+        when(mockedGitHubAPIService.getOrganizationRepos(eq(organizationName), any()))
                 .thenReturn(organizationRepos);
-        when(mockedGitHubAPIService.getRepoContributors(organizationName, repositoryName1))
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName1)), any(), any()))
                 .thenReturn(repoContributors1);
-        when(mockedGitHubAPIService.getRepoContributors(organizationName, repositoryName2))
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName2)), any(), any()))
                 .thenReturn(repoContributors2);
-        when(mockedGitHubAPIService.getRepoContributors(organizationName, repositoryName3))
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName3)), any(), any()))
                 .thenReturn(repoContributors3);
 
         final var result = service.getContributorsByOrganization(organizationName);
@@ -209,13 +239,13 @@ public class OrganizationContributorsFetchingTest {
 
 
         // when
-        when(mockedGitHubAPIService.getOrganizationRepos(organizationName))
+        when(mockedGitHubAPIService.getOrganizationRepos(eq(organizationName), any()))
                 .thenReturn(organizationRepos);
-        when(mockedGitHubAPIService.getRepoContributors(organizationName, repositoryName1))
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName1)), any(), any()))
                 .thenReturn(repoContributors1);
-        when(mockedGitHubAPIService.getRepoContributors(organizationName, repositoryName2))
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName2)), any(), any()))
                 .thenReturn(repoContributors2);
-        when(mockedGitHubAPIService.getRepoContributors(organizationName, repositoryName3))
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName3)), any(), any()))
                 .thenReturn(repoContributors3);
 
         final var result = service.getContributorsByOrganization(organizationName);
@@ -231,7 +261,7 @@ public class OrganizationContributorsFetchingTest {
         final var organizationName = "exampleName";
 
         // when
-        when(mockedGitHubAPIService.getOrganizationRepos(organizationName))
+        when(mockedGitHubAPIService.getOrganizationRepos(eq(organizationName), any()))
                 .thenReturn(Either.left(new ApiCallError()));
 
         final var result = service.getContributorsByOrganization(organizationName);
@@ -250,9 +280,9 @@ public class OrganizationContributorsFetchingTest {
         ));
 
         // when
-        when(mockedGitHubAPIService.getOrganizationRepos(organizationName))
+        when(mockedGitHubAPIService.getOrganizationRepos(eq(organizationName), any()))
                 .thenReturn(organizationRepos);
-        when(mockedGitHubAPIService.getRepoContributors(any(), any()))
+        when(mockedGitHubAPIService.getRepoContributors(any(), any(Repository.class), any(), any()))
                 .thenReturn(Future.successful(Either.left(new ApiCallError())));
 
         final var result = service.getContributorsByOrganization(organizationName);
@@ -260,4 +290,609 @@ public class OrganizationContributorsFetchingTest {
         // then
         VavrAssertions.assertThat(result).containsLeftInstanceOf(ApiCallError.class);
     }
+
+    @Test
+    void shouldComputeLeaderboardOnceForConcurrentRequests() throws InterruptedException {
+        // given
+        final var organizationName = "exampleName";
+        final var repositoryName1 = "exampleRepository1";
+        final Either<DomainError, Seq<Repository>> organizationRepos = Either.right(List.of(
+                new Repository(repositoryName1)
+        ));
+        final Future<Either<DomainError, Seq<Contributor>>> repoContributors1 = Future.successful(Either.right(List.of(
+                new Contributor("exampleContributor1", 45)
+        )));
+        final var expectedResult = List.of(
+                new ContributorDto("exampleContributor1", 45)
+        );
+        final var computationStarted = new CountDownLatch(1);
+        final var computationReleased = new CountDownLatch(1);
+        final var executor = Executors.newFixedThreadPool(8);
+
+        // when
+        when(mockedGitHubAPIService.getOrganizationRepos(eq(organizationName), any()))
+                .thenAnswer(invocation -> {
+                    computationStarted.countDown();
+                    computationReleased.await();
+                    return organizationRepos;
+                });
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName1)), any(), any()))
+                .thenReturn(repoContributors1);
+
+        final var results = List.range(0, 8)
+                .map(i -> Future.of(executor, () -> service.getContributorsByOrganization(organizationName)));
+        computationStarted.await();
+        computationReleased.countDown();
+
+        // then
+        results.forEach(result -> {
+            VavrAssertions.assertThat(result.get()).isRight();
+            assertThat(result.get().get()).containsExactlyElementsOf(expectedResult);
+        });
+        verify(mockedGitHubAPIService, times(1)).getOrganizationRepos(eq(organizationName), any());
+    }
+
+    @Test
+    void shouldNotCacheErrors() {
+        // given
+        final var organizationName = "exampleName";
+        final Either<DomainError, Seq<Repository>> organizationRepos = Either.right(List.empty());
+
+        // when
+        when(mockedGitHubAPIService.getOrganizationRepos(eq(organizationName), any()))
+                .thenReturn(Either.left(new ApiCallError()))
+                .thenReturn(organizationRepos);
+
+        final var failedResult = service.getContributorsByOrganization(organizationName);
+        final var result = service.getContributorsByOrganization(organizationName);
+
+        // then
+        VavrAssertions.assertThat(failedResult).containsLeftInstanceOf(ApiCallError.class);
+        VavrAssertions.assertThat(result).isRight();
+        verify(mockedGitHubAPIService, times(2)).getOrganizationRepos(eq(organizationName), any());
+    }
+
+    @Test
+    void shouldReturnPartialLeaderboardWhenRepositoryFails() {
+        // given
+        final var organizationName = "exampleName";
+        final var repositoryName1 = "exampleRepository1";
+        final var repositoryName2 = "exampleRepository2";
+        final Either<DomainError, Seq<Repository>> organizationRepos = Either.right(List.of(
+                new Repository(repositoryName1),
+                new Repository(repositoryName2)
+        ));
+        final Future<Either<DomainError, Seq<Contributor>>> repoContributors1 = Future.successful(Either.right(List.of(
+                new Contributor("exampleContributor1", 45)
+        )));
+
+        // when
+        when(mockedGitHubAPIService.getOrganizationRepos(eq(organizationName), any()))
+                .thenReturn(organizationRepos);
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName1)), any(), any()))
+                .thenReturn(repoContributors1);
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName2)), any(), any()))
+                .thenReturn(Future.successful(Either.left(new ApiCallError())));
+
+        final var result = service.getLeaderboardByOrganization(organizationName, Option.none(), Option.none());
+
+        // then
+        VavrAssertions.assertThat(result).isRight();
+        assertThat(result.get().getContributors()).containsExactly(new ContributorDto("exampleContributor1", 45));
+        assertThat(result.get().getMissingRepositories()).containsExactly(repositoryName2);
+        assertThat(result.get().getCompleteness()).isEqualTo(0.5);
+        assertThat(meterRegistry.get("organization.partial").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLeaveOutRepositoriesNotFetchedBeforeDeadline() {
+        // given
+        final var organizationName = "exampleName";
+        final var repositoryName1 = "exampleRepository1";
+        final var repositoryName2 = "exampleRepository2";
+        final Either<DomainError, Seq<Repository>> organizationRepos = Either.right(List.of(
+                new Repository(repositoryName1),
+                new Repository(repositoryName2)
+        ));
+        final Future<Either<DomainError, Seq<Contributor>>> repoContributors1 = Future.successful(Either.right(List.of(
+                new Contributor("exampleContributor1", 45)
+        )));
+        final Promise<Either<DomainError, Seq<Contributor>>> neverFetched = Promise.make();
+
+        // when
+        when(mockedGitHubAPIService.getOrganizationRepos(eq(organizationName), any()))
+                .thenReturn(organizationRepos);
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName1)), any(), any()))
+                .thenReturn(repoContributors1);
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName2)), any(), any()))
+                .thenReturn(neverFetched.future());
+
+        final var result = service.getLeaderboardByOrganization(organizationName, Option.none(),
+                Option.of(Duration.ofMillis(100)));
+
+        // then
+        VavrAssertions.assertThat(result).isRight();
+        assertThat(result.get().isComplete()).isFalse();
+        assertThat(result.get().getMissingRepositories()).containsExactly(repositoryName2);
+    }
+
+    @Test
+    void shouldAnswerJoiningCallerWithPartialLeaderboardAtItsDeadline() throws InterruptedException {
+        // given
+        final var organizationName = "exampleName";
+        final var repositoryName1 = "exampleRepository1";
+        final var repositoryName2 = "exampleRepository2";
+        final Either<DomainError, Seq<Repository>> organizationRepos = Either.right(List.of(
+                new Repository(repositoryName1),
+                new Repository(repositoryName2)
+        ));
+        final Future<Either<DomainError, Seq<Contributor>>> repoContributors1 = Future.successful(Either.right(List.of(
+                new Contributor("exampleContributor1", 45)
+        )));
+        final Promise<Either<DomainError, Seq<Contributor>>> neverFetched = Promise.make();
+        final var contributorsRequested = new CountDownLatch(2);
+        final var deadline = new AtomicReference<Deadline>();
+
+        // when
+        when(mockedGitHubAPIService.getOrganizationRepos(eq(organizationName), any()))
+                .thenAnswer(invocation -> {
+                    deadline.set(invocation.getArgument(1));
+                    return organizationRepos;
+                });
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName1)), any(), any()))
+                .thenAnswer(invocation -> {
+                    contributorsRequested.countDown();
+                    return repoContributors1;
+                });
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName2)), any(), any()))
+                .thenAnswer(invocation -> {
+                    contributorsRequested.countDown();
+                    return neverFetched.future();
+                });
+
+        final var first = new Thread(() -> service.getLeaderboardByOrganization(organizationName, Option.none(),
+                Option.of(Duration.ofMillis(30000))));
+        first.start();
+        contributorsRequested.await();
+
+        final var result = service.getLeaderboardByOrganization(organizationName, Option.none(),
+                Option.of(Duration.ofMillis(100)));
+        final var sharedDeadlineCancelled = deadline.get().isCancelled();
+        first.interrupt();
+        first.join();
+
+        // then
+        VavrAssertions.assertThat(result).isRight();
+        assertThat(result.get().getContributors()).containsExactly(new ContributorDto("exampleContributor1", 45));
+        assertThat(result.get().getMissingRepositories()).containsExactly(repositoryName2);
+        assertThat(sharedDeadlineCancelled).isFalse();
+        assertThat(deadline.get().remainingNanos()).isGreaterThan(Duration.ofSeconds(30).toNanos());
+        verify(mockedGitHubAPIService, times(1)).getOrganizationRepos(eq(organizationName), any());
+    }
+
+    @Test
+    void shouldNotCachePartialLeaderboards() {
+        // given
+        final var organizationName = "exampleName";
+        final var repositoryName1 = "exampleRepository1";
+        final var repositoryName2 = "exampleRepository2";
+        final Either<DomainError, Seq<Repository>> organizationRepos = Either.right(List.of(
+                new Repository(repositoryName1),
+                new Repository(repositoryName2)
+        ));
+        final Future<Either<DomainError, Seq<Contributor>>> repoContributors1 = Future.successful(Either.right(List.of(
+                new Contributor("exampleContributor1", 45)
+        )));
+
+        // when
+        when(mockedGitHubAPIService.getOrganizationRepos(eq(organizationName), any()))
+                .thenReturn(organizationRepos);
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName1)), any(), any()))
+                .thenReturn(repoContributors1);
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName2)), any(), any()))
+                .thenReturn(Future.successful(Either.left(new ApiCallError())));
+
+        service.getLeaderboardByOrganization(organizationName, Option.none(), Option.none());
+        service.getLeaderboardByOrganization(organizationName, Option.none(), Option.none());
+
+        // then
+        verify(mockedGitHubAPIService, times(2)).getOrganizationRepos(eq(organizationName), any());
+    }
+
+    @Test
+    void shouldReturnErrorWhenDeadlineNotPositive() {
+        // given
+        final var organizationName = "exampleName";
+
+        // when
+        final var result = service.getLeaderboardByOrganization(organizationName, Option.none(),
+                Option.of(Duration.ZERO));
+
+        // then
+        VavrAssertions.assertThat(result).containsLeftInstanceOf(InvalidDeadlineError.class);
+    }
+
+    @Test
+    void shouldCancelComputationWhenCallerInterrupted() throws InterruptedException {
+        // given
+        final var organizationName = "exampleName";
+        final var listingStarted = new CountDownLatch(1);
+        final var deadline = new AtomicReference<Deadline>();
+        final var result = new AtomicReference<Either<DomainError, Leaderboard>>();
+
+        // when
+        when(mockedGitHubAPIService.getOrganizationRepos(eq(organizationName), any()))
+                .thenAnswer(invocation -> {
+                    deadline.set(invocation.getArgument(1));
+                    listingStarted.countDown();
+                    deadline.get().whenCancelled().join();
+                    return Either.left(new RequestCancelledError());
+                });
+
+        final var caller = new Thread(() -> result.set(
+                service.getLeaderboardByOrganization(organizationName, Option.none(), Option.none())));
+        caller.start();
+        listingStarted.await();
+        caller.interrupt();
+        caller.join();
+
+        // then
+        VavrAssertions.assertThat(result.get()).containsLeftInstanceOf(RequestCancelledError.class);
+        assertThat(deadline.get().isCancelled()).isTrue();
+        assertThat(meterRegistry.get("organization.cancelled").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCancelComputationOnlyWhenEverybodyLeft() {
+        // given
+        final var organizationName = "exampleName";
+        final var cancelled = new AtomicBoolean();
+
+        // when
+        when(mockedReactiveGitHubApiService.getOrganizationRepos(organizationName))
+                .thenReturn(Flux.<Repository>never().doOnCancel(() -> cancelled.set(true)));
+
+        final var first = service.getLeaderboardByOrganizationReactive(organizationName, Option.none(), Option.none())
+                .subscribe();
+        final var second = service.getLeaderboardByOrganizationReactive(organizationName, Option.none(), Option.none())
+                .subscribe();
+        first.dispose();
+        final var cancelledWhileWaited = cancelled.get();
+        second.dispose();
+
+        // then
+        assertThat(cancelledWhileWaited).isFalse();
+        assertThat(cancelled.get()).isTrue();
+        verify(mockedReactiveGitHubApiService, times(1)).getOrganizationRepos(organizationName);
+    }
+
+    @Test
+    void shouldFetchAndSortContributorsWithoutBlocking() {
+        // given
+        final var organizationName = "exampleName";
+        final var repositoryName1 = "exampleRepository1";
+        final var repositoryName2 = "exampleRepository2";
+        final Seq<Contributor> repoContributors1 = List.of(
+                new Contributor("exampleContributor1", 45),
+                new Contributor("exampleContributor2", 12)
+        );
+        final Seq<Contributor> repoContributors2 = List.of(
+                new Contributor("exampleContributor2", 80),
+                new Contributor("exampleContributor3", 1)
+        );
+        final var expectedResult = List.of(
+                new ContributorDto("exampleContributor2", 92),
+                new ContributorDto("exampleContributor1", 45),
+                new ContributorDto("exampleContributor3", 1)
+        );
+
+        // when
+        when(mockedReactiveGitHubApiService.getOrganizationRepos(organizationName))
+                .thenReturn(Flux.just(new Repository(repositoryName1), new Repository(repositoryName2)));
+        when(mockedReactiveGitHubApiService.getRepoContributors(organizationName, new Repository(repositoryName1)))
+                .thenReturn(Mono.just(repoContributors1));
+        when(mockedReactiveGitHubApiService.getRepoContributors(organizationName, new Repository(repositoryName2)))
+                .thenReturn(Mono.just(repoContributors2));
+
+        final var result = service.getContributorsByOrganizationReactive(organizationName).block();
+
+        // then
+        VavrAssertions.assertThat(result).isRight();
+        assertThat(result.get()).containsExactlyElementsOf(expectedResult);
+    }
+
+    @Test
+    void shouldForwardContributorFetchingErrorsWithoutBlocking() {
+        // given
+        final var organizationName = "exampleName";
+        final var repositoryName1 = "exampleRepository1";
+
+        // when
+        when(mockedReactiveGitHubApiService.getOrganizationRepos(organizationName))
+                .thenReturn(Flux.just(new Repository(repositoryName1)));
+        when(mockedReactiveGitHubApiService.getRepoContributors(any(), any(Repository.class)))
+                .thenReturn(Mono.error(new ApiCallError()));
+
+        final var result = service.getContributorsByOrganizationReactive(organizationName).block();
+
+        // then
+        VavrAssertions.assertThat(result).containsLeftInstanceOf(ApiCallError.class);
+    }
+
+    @Test
+    void shouldFetchBatchOfOrganizationsOnceEach() {
+        // given
+        final var organizationName1 = "exampleName1";
+        final var organizationName2 = "exampleName2";
+        final var repositoryName1 = "exampleRepository1";
+        final var repositoryName2 = "exampleRepository2";
+        final Seq<Contributor> repoContributors1 = List.of(
+                new Contributor("exampleContributor1", 45),
+                new Contributor("exampleContributor2", 12)
+        );
+        final Seq<Contributor> repoContributors2 = List.of(
+                new Contributor("exampleContributor2", 80),
+                new Contributor("exampleContributor3", 1)
+        );
+
+        // when
+        when(mockedReactiveGitHubApiService.getOrganizationRepos(organizationName1))
+                .thenReturn(Flux.just(new Repository(repositoryName1)));
+        when(mockedReactiveGitHubApiService.getOrganizationRepos(organizationName2))
+                .thenReturn(Flux.just(new Repository(repositoryName2)));
+        when(mockedReactiveGitHubApiService.getRepoContributors(organizationName1, new Repository(repositoryName1)))
+                .thenReturn(Mono.just(repoContributors1));
+        when(mockedReactiveGitHubApiService.getRepoContributors(organizationName2, new Repository(repositoryName2)))
+                .thenReturn(Mono.just(repoContributors2));
+
+        final var result = service.getContributorsByOrganizations(
+                List.of(organizationName1, organizationName2, organizationName1.toUpperCase()), Option.none(), true)
+                .block();
+
+        // then
+        VavrAssertions.assertThat(result).isRight();
+        assertThat(result.get().getOrganizations()).containsExactly(
+                new OrganizationLeaderboardDto(organizationName1, List.of(
+                        new ContributorDto("exampleContributor1", 45),
+                        new ContributorDto("exampleContributor2", 12)
+                ), Option.none()),
+                new OrganizationLeaderboardDto(organizationName2, List.of(
+                        new ContributorDto("exampleContributor2", 80),
+                        new ContributorDto("exampleContributor3", 1)
+                ), Option.none())
+        );
+        assertThat(result.get().getCombined().get()).containsExactly(
+                new ContributorDto("exampleContributor2", 92),
+                new ContributorDto("exampleContributor1", 45),
+                new ContributorDto("exampleContributor3", 1)
+        );
+        verify(mockedReactiveGitHubApiService, times(1)).getOrganizationRepos(organizationName1);
+    }
+
+    @Test
+    void shouldReportFailedOrganizationWithoutFailingBatch() {
+        // given
+        final var organizationName1 = "exampleName1";
+        final var organizationName2 = "exampleName2";
+        final var repositoryName1 = "exampleRepository1";
+        final Seq<Contributor> repoContributors1 = List.of(new Contributor("exampleContributor1", 45));
+
+        // when
+        when(mockedReactiveGitHubApiService.getOrganizationRepos(organizationName1))
+                .thenReturn(Flux.just(new Repository(repositoryName1)));
+        when(mockedReactiveGitHubApiService.getOrganizationRepos(organizationName2))
+                .thenReturn(Flux.error(new NotFoundError()));
+        when(mockedReactiveGitHubApiService.getRepoContributors(organizationName1, new Repository(repositoryName1)))
+                .thenReturn(Mono.just(repoContributors1));
+
+        final var result = service.getContributorsByOrganizations(
+                List.of(organizationName1, organizationName2), Option.none(), false).block();
+
+        // then
+        VavrAssertions.assertThat(result).isRight();
+        assertThat(result.get().getOrganizations()).containsExactly(
+                new OrganizationLeaderboardDto(organizationName1,
+                        List.of(new ContributorDto("exampleContributor1", 45)), Option.none()),
+                new OrganizationLeaderboardDto(organizationName2, List.empty(), Option.of("Not found"))
+        );
+        assertThat(result.get().getCombined().isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldReturnErrorWhenBatchHasBlankOrganization() {
+        // when
+        final var result = service.getContributorsByOrganizations(List.of("exampleName", " "), Option.none(), false)
+                .block();
+
+        // then
+        VavrAssertions.assertThat(result).containsLeftInstanceOf(BlankOrganisationNameError.class);
+    }
+
+    @Test
+    void shouldStreamSnapshotsUntilLeaderboardComplete() {
+        // given
+        final var organizationName = "exampleName";
+        final var repositoryName1 = "exampleRepository1";
+        final var repositoryName2 = "exampleRepository2";
+        final Seq<Contributor> repoContributors1 = List.of(
+                new Contributor("exampleContributor1", 45),
+                new Contributor("exampleContributor2", 12)
+        );
+        final Seq<Contributor> repoContributors2 = List.of(
+                new Contributor("exampleContributor2", 80)
+        );
+        final var expectedResult = List.of(
+                new ContributorDto("exampleContributor2", 92),
+                new ContributorDto("exampleContributor1", 45)
+        );
+
+        // when
+        when(mockedReactiveGitHubApiService.getOrganizationRepos(organizationName))
+                .thenReturn(Flux.just(new Repository(repositoryName1), new Repository(repositoryName2)));
+        when(mockedReactiveGitHubApiService.getRepoContributors(organizationName, new Repository(repositoryName1)))
+                .thenReturn(Mono.just(repoContributors1));
+        when(mockedReactiveGitHubApiService.getRepoContributors(organizationName, new Repository(repositoryName2)))
+                .thenReturn(Mono.just(repoContributors2));
+
+        final var snapshots = List.ofAll(service.streamContributorsByOrganization(organizationName)
+                .collectList()
+                .block());
+
+        // then
+        assertThat(snapshots.map(LeaderboardSnapshotDto::getProcessedRepositories)).containsExactly(0, 1, 2);
+        assertThat(snapshots.init().map(LeaderboardSnapshotDto::isComplete)).containsOnly(false);
+        assertThat(snapshots.last().isComplete()).isTrue();
+        assertThat(snapshots.last().getContributors()).containsExactlyElementsOf(expectedResult);
+    }
+
+    @Test
+    void shouldEndStreamWithErrorSnapshotWhenRepositoryFails() {
+        // given
+        final var organizationName = "exampleName";
+        final var repositoryName1 = "exampleRepository1";
+        final var repositoryName2 = "exampleRepository2";
+        final Seq<Contributor> repoContributors1 = List.of(
+                new Contributor("exampleContributor1", 45)
+        );
+
+        // when
+        when(mockedReactiveGitHubApiService.getOrganizationRepos(organizationName))
+                .thenReturn(Flux.just(new Repository(repositoryName1), new Repository(repositoryName2)));
+        when(mockedReactiveGitHubApiService.getRepoContributors(organizationName, new Repository(repositoryName1)))
+                .thenReturn(Mono.just(repoContributors1));
+        when(mockedReactiveGitHubApiService.getRepoContributors(organizationName, new Repository(repositoryName2)))
+                .thenReturn(Mono.error(new ApiCallError()));
+
+        final var snapshots = List.ofAll(service.streamContributorsByOrganization(organizationName)
+                .collectList()
+                .block());
+
+        // then
+        assertThat(snapshots.init().map(LeaderboardSnapshotDto::getError)).containsOnly(Option.none());
+        assertThat(snapshots.last().getError()).isEqualTo(Option.of(new ApiCallError().getReason()));
+        assertThat(snapshots.last().isComplete()).isFalse();
+        assertThat(snapshots.last().getProcessedRepositories()).isEqualTo(1);
+        assertThat(snapshots.last().getContributors())
+                .containsExactly(new ContributorDto("exampleContributor1", 45));
+    }
+
+    @Test
+    void shouldEndStreamWithErrorSnapshotWhenListingFails() {
+        // given
+        final var organizationName = "exampleName";
+
+        // when
+        when(mockedReactiveGitHubApiService.getOrganizationRepos(organizationName))
+                .thenReturn(Flux.error(new NotFoundError()));
+
+        final var snapshots = List.ofAll(service.streamContributorsByOrganization(organizationName)
+                .collectList()
+                .block());
+
+        // then
+        assertThat(snapshots).hasSize(1);
+        assertThat(snapshots.head().getError()).isEqualTo(Option.of(new NotFoundError().getReason()));
+    }
+
+    @Test
+    void shouldMarkStreamedLeaderboardServedFromCache() {
+        // given
+        final var organizationName = "exampleName";
+        final var leaderboardCache = new LeaderboardCache(300, 1000);
+        final var service = new ContributorService(mockedGitHubAPIService, mockedReactiveGitHubApiService,
+                leaderboardCache, 32, 60000, meterRegistry);
+        final var expectedResult = List.of(new ContributorDto("exampleContributor1", 45));
+        leaderboardCache.replace(organizationName, expectedResult);
+
+        // when
+        final var snapshots = List.ofAll(service.streamContributorsByOrganization(organizationName)
+                .collectList()
+                .block());
+
+        // then
+        assertThat(snapshots).hasSize(1);
+        assertThat(snapshots.head().isCached()).isTrue();
+        assertThat(snapshots.head().isComplete()).isTrue();
+        assertThat(snapshots.head().getContributors()).containsExactlyElementsOf(expectedResult);
+    }
+
+    @Test
+    void shouldReturnTopContributors() {
+        // given
+        final var organizationName = "exampleName";
+        final var repositoryName1 = "exampleRepository1";
+        final Either<DomainError, Seq<Repository>> organizationRepos = Either.right(List.of(
+                new Repository(repositoryName1)
+        ));
+        final Future<Either<DomainError, Seq<Contributor>>> repoContributors1 = Future.successful(Either.right(List.of(
+                new Contributor("exampleContributor1", 45),
+                new Contributor("exampleContributor2", 12),
+                new Contributor("exampleContributor3", 1),
+                new Contributor("exampleContributor5", 80)
+        )));
+        final var expectedResult = List.of(
+                new ContributorDto("exampleContributor5", 80),
+                new ContributorDto("exampleContributor1", 45)
+        );
+
+        // when
+        when(mockedGitHubAPIService.getOrganizationRepos(eq(organizationName), any()))
+                .thenReturn(organizationRepos);
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName1)), any(), any()))
+                .thenReturn(repoContributors1);
+
+        final var result = service.getContributorsByOrganization(organizationName, Option.of(2));
+
+        // then
+        VavrAssertions.assertThat(result).isRight();
+        assertThat(result.get()).containsExactlyElementsOf(expectedResult);
+    }
+
+    @Test
+    void shouldReturnErrorWhenLimitNotPositive() {
+        // given
+        final var organizationName = "exampleName";
+
+        // when
+        final var result = service.getContributorsByOrganization(organizationName, Option.of(0));
+
+        // then
+        VavrAssertions.assertThat(result).containsLeftInstanceOf(InvalidLimitError.class);
+    }
+
+    @Test
+    void shouldRecordSizeOfComputedOrganization() {
+        // given
+        final var organizationName = "exampleName";
+        final var repositoryName1 = "exampleRepository1";
+        final var repositoryName2 = "exampleRepository2";
+        final Either<DomainError, Seq<Repository>> organizationRepos = Either.right(List.of(
+                new Repository(repositoryName1),
+                new Repository(repositoryName2)
+        ));
+        final Future<Either<DomainError, Seq<Contributor>>> repoContributors1 = Future.successful(Either.right(List.of(
+                new Contributor("exampleContributor1", 45),
+                new Contributor("exampleContributor2", 12)
+        )));
+        final Future<Either<DomainError, Seq<Contributor>>> repoContributors2 = Future.successful(Either.right(List.of(
+                new Contributor("exampleContributor2", 3),
+                new Contributor("exampleContributor3", 80)
+        )));
+
+        // when
+        when(mockedGitHubAPIService.getOrganizationRepos(eq(organizationName), any()))
+                .thenReturn(organizationRepos);
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName1)), any(), any()))
+                .thenReturn(repoContributors1);
+        when(mockedGitHubAPIService.getRepoContributors(eq(organizationName), eq(new Repository(repositoryName2)), any(), any()))
+                .thenReturn(repoContributors2);
+
+        service.getContributorsByOrganization(organizationName);
+        service.getContributorsByOrganization(organizationName);
+
+        // then
+        assertThat(meterRegistry.get("organization.aggregation").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("organization.repositories").summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get("organization.contributors").summary().totalAmount()).isEqualTo(3);
+    }
 }
@@ -0,0 +1,69 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.gosiewski.contributorsjava.service.domain.Contributor;
+import com.gosiewski.contributorsjava.service.domain.Repository;
+import io.vavr.control.Option;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageDecoderTest {
+
+    @Test
+    void shouldDecodeContributorsSkippingUnusedFields() throws Exception {
+        // given
+        final var body = "[{\"login\":\"sampleLogin\",\"id\":1,\"site_admin\":false,\"plan\":{\"name\":\"pro\"}," +
+                "\"urls\":[\"a\",\"b\"],\"contributions\":15}," +
+                "{\"contributions\":3,\"login\":\"otherLogin\",\"avatar_url\":null}]";
+
+        // when
+        final var result = PageDecoder.CONTRIBUTORS.decode(stream(body));
+
+        // then
+        assertThat(result).containsExactly(
+                new Contributor("sampleLogin", 15),
+                new Contributor("otherLogin", 3)
+        );
+    }
+
+    @Test
+    void shouldDecodeRepositoriesWithTimestamps() throws Exception {
+        // given
+        final var body = "[{\"name\":\"sampleRepository\",\"owner\":{\"name\":\"notTheRepository\"}," +
+                "\"pushed_at\":\"2020-02-01T10:15:30Z\",\"updated_at\":null,\"fork\":true,\"archived\":false," +
+                "\"size\":2048}]";
+
+        // when
+        final var result = PageDecoder.REPOSITORIES.decode(body.getBytes(StandardCharsets.UTF_8));
+
+        // then
+        assertThat(result).containsExactly(new Repository("sampleRepository",
+                Option.of(Instant.parse("2020-02-01T10:15:30Z")), Option.none(), true, false, 2048));
+    }
+
+    @Test
+    void shouldReturnNullForEmptyBody() throws Exception {
+        // when
+        final var result = PageDecoder.CONTRIBUTORS.decode(stream(""));
+
+        // then
+        assertThat(result).isNull();
+    }
+
+    @Test
+    void shouldFailWhenBodyIsNotAnArray() {
+        // when, then
+        assertThatThrownBy(() -> PageDecoder.CONTRIBUTORS.decode(stream("{\"message\":\"Not Found\"}")))
+                .isInstanceOf(JsonParseException.class);
+    }
+
+    private ByteArrayInputStream stream(final String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,87 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.gosiewski.contributorsjava.error.ApiCallError;
+import com.gosiewski.contributorsjava.error.DomainError;
+import io.vavr.collection.List;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageIteratorTest {
+    private final static String NEXT_PAGE_HEADER = "Next-Page";
+
+    private final java.util.List<String> requestedUrls = new ArrayList<>();
+
+    @Test
+    void shouldIterateOverAllPagesInOrder() {
+        // given
+        final var pages = pageIterator(3, Option.none());
+
+        // when
+        final var result = List.ofAll(() -> pages)
+                .flatMap(page -> page.get().getBody());
+
+        // then
+        assertThat(result).containsExactly("page1", "page2", "page3");
+    }
+
+    @Test
+    void shouldFetchNextPageBeforeCurrentOneIsConsumed() {
+        // given
+        final var pages = pageIterator(3, Option.none());
+
+        // when
+        final var firstPage = pages.next();
+
+        // then
+        assertThat(firstPage.get().getBody()).containsExactly("page1");
+        assertThat(requestedUrls).containsExactly("page1", "page2");
+    }
+
+    @Test
+    void shouldStopAfterFirstError() {
+        // given
+        final var pages = pageIterator(3, Option.of("page2"));
+
+        // when
+        final var firstPage = pages.next();
+        final var secondPage = pages.next();
+
+        // then
+        assertThat(firstPage.isRight()).isTrue();
+        assertThat(secondPage.getLeft()).isInstanceOf(ApiCallError.class);
+        assertThat(pages.hasNext()).isFalse();
+        assertThat(requestedUrls).containsExactly("page1", "page2");
+    }
+
+    // Pages are fetched on the calling thread, so the prefetching is visible right after next() returns
+    private PageIterator<String> pageIterator(final int pagesCount, final Option<String> failingPage) {
+        return new PageIterator<>("page1", url -> fetchPage(url, pagesCount, failingPage),
+                headers -> Option.of(headers.getFirst(NEXT_PAGE_HEADER)), Runnable::run);
+    }
+
+    private Either<DomainError, ResponseEntity<List<String>>> fetchPage(final String url, final int pagesCount,
+                                                                       final Option<String> failingPage) {
+        requestedUrls.add(url);
+
+        if (failingPage.contains(url)) {
+            return Either.left(new ApiCallError());
+        }
+
+        final var pageNumber = Integer.parseInt(url.substring("page".length()));
+        final var headers = new HttpHeaders();
+
+        if (pageNumber < pagesCount) {
+            headers.set(NEXT_PAGE_HEADER, "page" + (pageNumber + 1));
+        }
+
+        return Either.right(new ResponseEntity<>(List.of(url), headers, HttpStatus.OK));
+    }
+}
@@ -0,0 +1,176 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.gosiewski.contributorsjava.error.RateLimitExceededError;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.vavr.api.VavrAssertions.assertThat;
+
+public class RateLimitSchedulerTest {
+
+    private final static Instant NOW = Instant.ofEpochSecond(1_000_000);
+
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    @Test
+    void shouldNotDelayWhenBudgetUnknown() {
+        // given
+        final var scheduler = new RateLimitScheduler(100, Duration.ofMinutes(1), clock);
+
+        // when
+        final var result = scheduler.reserve();
+
+        // then
+        assertThat(result).containsOnRight(Duration.ZERO);
+    }
+
+    @Test
+    void shouldNotDelayWhenBudgetAboveThreshold() {
+        // given
+        final var scheduler = new RateLimitScheduler(100, Duration.ofMinutes(1), clock);
+        scheduler.update(rateLimitHeaders(4000, NOW.plusSeconds(600)));
+
+        // when
+        final var result = scheduler.reserve();
+
+        // then
+        assertThat(result).containsOnRight(Duration.ZERO);
+        assertThat(scheduler.getStats().getRemaining()).isEqualTo(3999);
+    }
+
+    @Test
+    void shouldSpreadRemainingBudgetUntilReset() {
+        // given
+        final var scheduler = new RateLimitScheduler(100, Duration.ofMinutes(1), clock);
+        scheduler.update(rateLimitHeaders(10, NOW.plusSeconds(50)));
+
+        // when
+        final var first = scheduler.reserve();
+        final var second = scheduler.reserve();
+        final var third = scheduler.reserve();
+
+        // then
+        assertThat(first).containsOnRight(Duration.ZERO);
+        assertThat(second).containsOnRight(Duration.ofSeconds(5));
+        assertThat(third.get()).isGreaterThan(second.get());
+    }
+
+    @Test
+    void shouldWaitForResetWhenBudgetExhausted() {
+        // given
+        final var scheduler = new RateLimitScheduler(100, Duration.ofMinutes(1), clock);
+        scheduler.update(rateLimitHeaders(0, NOW.plusSeconds(30)));
+
+        // when
+        final var result = scheduler.reserve();
+
+        // then
+        assertThat(result).containsOnRight(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void shouldFailWhenResetTooFar() {
+        // given
+        final var scheduler = new RateLimitScheduler(100, Duration.ofMinutes(1), clock);
+        scheduler.update(rateLimitHeaders(0, NOW.plusSeconds(3600)));
+
+        // when
+        final var result = scheduler.reserve();
+
+        // then
+        assertThat(result).containsLeftInstanceOf(RateLimitExceededError.class);
+    }
+
+    @Test
+    void shouldHonorRetryAfter() {
+        // given
+        final var scheduler = new RateLimitScheduler(100, Duration.ofMinutes(1), clock);
+        final var headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "20");
+        scheduler.update(headers);
+
+        // when
+        final var result = scheduler.reserve();
+
+        // then
+        assertThat(result).containsOnRight(Duration.ofSeconds(20));
+        assertThat(scheduler.isRateLimited(HttpStatus.FORBIDDEN, headers)).isTrue();
+    }
+
+    @Test
+    void shouldIgnoreHigherBudgetOfOlderResponse() {
+        // given
+        final var scheduler = new RateLimitScheduler(100, Duration.ofMinutes(1), clock);
+        scheduler.update(rateLimitHeaders(3000, NOW.plusSeconds(600)));
+
+        // when
+        scheduler.update(rateLimitHeaders(3500, NOW.plusSeconds(600)));
+
+        // then
+        assertThat(scheduler.getStats().getRemaining()).isEqualTo(3000);
+    }
+
+    @Test
+    void shouldTrackBudgetOfRestApiOnly() {
+        // given
+        final var scheduler = new RateLimitScheduler(100, Duration.ofMinutes(1), clock);
+        scheduler.update(rateLimitHeaders(3000, NOW.plusSeconds(600)));
+        final var graphQlHeaders = rateLimitHeaders(10, NOW.plusSeconds(900));
+        graphQlHeaders.set("X-RateLimit-Resource", "graphql");
+
+        // when
+        scheduler.update(graphQlHeaders);
+
+        // then
+        assertThat(scheduler.getStats().getRemaining()).isEqualTo(3000);
+        assertThat(scheduler.getStats().getResetAt()).isEqualTo(NOW.plusSeconds(600));
+    }
+
+    @Test
+    void shouldNotLetOptionalRequestTakePacedBudget() {
+        // given
+        final var scheduler = new RateLimitScheduler(100, Duration.ofMinutes(1), clock);
+        scheduler.update(rateLimitHeaders(101, NOW.plusSeconds(600)));
+
+        // when
+        final var first = scheduler.tryAcquire();
+        final var second = scheduler.tryAcquire();
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(scheduler.getStats().getRemaining()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldStopWaitingWhenDeadlineCancelled() {
+        // given
+        final var scheduler = new RateLimitScheduler(100, Duration.ofMinutes(1), clock);
+        scheduler.update(rateLimitHeaders(0, NOW.plusSeconds(30)));
+        final var deadline = Deadline.none();
+        deadline.cancel();
+
+        // when
+        final var startedAt = System.nanoTime();
+        scheduler.acquire(deadline);
+        final var elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+
+        // then
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(1));
+    }
+
+    private HttpHeaders rateLimitHeaders(final long remaining, final Instant reset) {
+        final var headers = new HttpHeaders();
+        headers.set("X-RateLimit-Remaining", String.valueOf(remaining));
+        headers.set("X-RateLimit-Reset", String.valueOf(reset.getEpochSecond()));
+
+        return headers;
+    }
+}
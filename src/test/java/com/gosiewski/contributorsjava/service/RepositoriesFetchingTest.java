@@ -2,13 +2,13 @@ package com.gosiewski.contributorsjava.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.gosiewski.contributorsjava.dto.incoming.RepositoryRequestDto;
 import com.gosiewski.contributorsjava.error.ApiCallError;
 import com.gosiewski.contributorsjava.error.BlankOrganisationNameError;
 import com.gosiewski.contributorsjava.error.NotFoundError;
 import com.gosiewski.contributorsjava.service.domain.Repository;
 import io.vavr.collection.List;
 import io.vavr.collection.Seq;
+import io.vavr.control.Option;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,6 +25,8 @@ import org.springframework.web.client.RestTemplate;
 import javax.inject.Inject;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
+import java.util.Map;
 
 import static org.assertj.vavr.api.VavrAssertions.assertThat;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
@@ -71,7 +73,36 @@ class RepositoriesFetchingTest {
                 new Repository("sampleRepository2")
         );
         final var response = expectedResult
-                .map(repository -> new RepositoryRequestDto(repository.getName()));
+                .map(repository -> Map.of("name", repository.getName()));
+        final var url = String.format("https://api.github.com/orgs/%1$s/repos", organizationName);
+
+        // when
+        mockServer.expect(ExpectedCount.once(),
+                requestTo(new URI(url)))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(mapper.writeValueAsString(response.toJavaList()))
+                );
+
+        final var result = service.getOrganizationRepos(organizationName);
+
+        // then
+        assertThat(result).containsOnRight(expectedResult);
+    }
+
+    @Test
+    void shouldKeepPushTimestamps() throws URISyntaxException, JsonProcessingException {
+        // given
+        final var organizationName = "exampleName";
+        final var pushedAt = "2020-02-01T10:15:30Z";
+        final var updatedAt = "2020-02-02T10:15:30Z";
+        final var expectedResult = List.of(
+                new Repository("sampleRepository1", Option.of(Instant.parse(pushedAt)),
+                        Option.of(Instant.parse(updatedAt)))
+        );
+        final var response = List.of(Map.of("name", "sampleRepository1", "pushed_at", pushedAt,
+                "updated_at", updatedAt));
         final var url = String.format("https://api.github.com/orgs/%1$s/repos", organizationName);
 
         // when
@@ -101,7 +132,7 @@ class RepositoriesFetchingTest {
                 new Repository("sampleRepository5")
         );
         final var response = expectedResult
-                .map(repository -> new RepositoryRequestDto(repository.getName()));
+                .map(repository -> Map.of("name", repository.getName()));
         final var firstPageUrl = String.format("https://api.github.com/orgs/%1$s/repos", organizationName);;
         final var secondPageUrl = String.format("https://api.github.com/orgs/%1$s/repos?page=2",
                 organizationName);;
@@ -141,7 +172,7 @@ class RepositoriesFetchingTest {
         // given
         final var organizationName = "exampleName";
         final Seq<Repository> expectedResult = List.empty();
-        final Seq<RepositoryRequestDto> response = List.empty();
+        final Seq<Map<String, String>> response = List.empty();
         final var url = String.format("https://api.github.com/orgs/%1$s/repos", organizationName);
 
         // when
@@ -0,0 +1,159 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gosiewski.contributorsjava.error.RequestCancelledError;
+import com.gosiewski.contributorsjava.service.domain.Contributor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vavr.collection.List;
+import io.vavr.concurrent.Future;
+import org.assertj.vavr.api.VavrAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import javax.inject.Inject;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+class RequestCoalescingTest {
+    private final static int CALLERS = 8;
+
+    @Inject
+    private HttpClient httpClient;
+
+    @Inject
+    private RestTemplate restTemplate;
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    private MockRestServiceServer mockServer;
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeEach
+    void init() {
+        mockServer = MockRestServiceServer.createServer(restTemplate);
+    }
+
+    @Test
+    void shouldShareOneCallBetweenConcurrentCallers() throws URISyntaxException, JsonProcessingException {
+        // given
+        final var url = "https://api.github.com/repos/exampleOwner/concurrentlyFetchedRepository/contributors";
+        final var body = mapper.writeValueAsString(List.of(Map.of("login", "sampleLogin", "contributions", 5)));
+        final var coalescedBefore = count("coalesced");
+        final var issuedBefore = count("issued");
+        final var executor = Executors.newFixedThreadPool(CALLERS);
+
+        // when
+        mockServer.expect(ExpectedCount.once(), requestTo(new URI(url)))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(request -> {
+                    // GitHub answers only once all the other callers are waiting for this very call
+                    awaitCount("coalesced", coalescedBefore + CALLERS - 1);
+
+                    return withStatus(HttpStatus.OK)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(body)
+                            .createResponse(request);
+                });
+
+        final var responses = Future.sequence(List.range(0, CALLERS)
+                .map(caller -> Future.of(executor, () -> httpClient.fetchPage(url, PageDecoder.CONTRIBUTORS))))
+                .get();
+
+        // then
+        mockServer.verify();
+        assertThat(responses.map(response -> response.get().getBody()).distinct())
+                .containsExactly(List.of(new Contributor("sampleLogin", 5)));
+        assertThat(count("coalesced") - coalescedBefore).isEqualTo(CALLERS - 1);
+        assertThat(count("issued") - issuedBefore).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCallAgainOnceCallCompleted() throws URISyntaxException, JsonProcessingException {
+        // given
+        final var url = "https://api.github.com/repos/exampleOwner/repeatedlyFetchedRepository/contributors";
+        final var body = mapper.writeValueAsString(List.of(Map.of("login", "sampleLogin", "contributions", 5)));
+        final var issuedBefore = count("issued");
+
+        // when
+        mockServer.expect(ExpectedCount.twice(), requestTo(new URI(url)))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(body));
+
+        httpClient.fetchPage(url, PageDecoder.CONTRIBUTORS);
+        httpClient.fetchPage(url, PageDecoder.CONTRIBUTORS);
+
+        // then
+        mockServer.verify();
+        assertThat(count("issued") - issuedBefore).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotCallGitHubForCancelledRequest() {
+        // given
+        final var url = "https://api.github.com/repos/exampleOwner/abandonedRepository/contributors";
+        final var abandonedBefore = countAbandoned("cancelled");
+        final var deadline = Deadline.none();
+
+        // when
+        deadline.cancel();
+
+        final var response = httpClient.fetchPage(url, PageDecoder.CONTRIBUTORS, deadline);
+
+        // then
+        mockServer.verify();
+        VavrAssertions.assertThat(response).containsLeftInstanceOf(RequestCancelledError.class);
+        assertThat(countAbandoned("cancelled") - abandonedBefore).isEqualTo(1);
+    }
+
+    private double count(final String result) {
+        final Counter counter = meterRegistry.find("github.coalescing")
+                .tags("endpoint", PageDecoder.CONTRIBUTORS.getName(), "result", result)
+                .counter();
+
+        return counter == null ? 0 : counter.count();
+    }
+
+    private double countAbandoned(final String reason) {
+        final Counter counter = meterRegistry.find("github.abandoned")
+                .tags("endpoint", PageDecoder.CONTRIBUTORS.getName(), "reason", reason)
+                .counter();
+
+        return counter == null ? 0 : counter.count();
+    }
+
+    private void awaitCount(final String result, final double expected) {
+        final var deadline = System.currentTimeMillis() + 5000;
+
+        while (count(result) < expected && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
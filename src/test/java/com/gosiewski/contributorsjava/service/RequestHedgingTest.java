@@ -0,0 +1,138 @@
+package com.gosiewski.contributorsjava.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.vavr.api.VavrAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs against a local stub which answers the first call of a slow page only after a long while
+class RequestHedgingTest {
+    private final static long SLOW_CALL_MILLIS = 2000;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger slowCalls = new AtomicInteger();
+
+    private HttpServer server;
+
+    private RateLimitScheduler rateLimitScheduler;
+
+    private HttpClient httpClient;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        // Both the slow call and its duplicate must be served at the same time
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        rateLimitScheduler = new RateLimitScheduler(0, Duration.ofMinutes(1), Clock.systemUTC());
+        httpClient = new HttpClient(new RestTemplate(), new ResponseCache(1024 * 1024), rateLimitScheduler,
+                new UpstreamMetrics(meterRegistry), new CircuitBreaker(50, 0, Duration.ofSeconds(30), Clock.systemUTC()),
+                "", 95, 10, 16, meterRegistry);
+    }
+
+    @AfterEach
+    void afterEach() {
+        httpClient.stop();
+        server.stop(0);
+    }
+
+    @Test
+    void shouldTakeAnswerOfDuplicateWhenCallIsSlow() {
+        // given
+        for (int i = 0; i < 100; i++) {
+            httpClient.fetchPage(url("/fast/" + i), PageDecoder.CONTRIBUTORS);
+        }
+
+        // when
+        final var startedAt = System.nanoTime();
+        final var result = httpClient.fetchPage(url("/slow"), PageDecoder.CONTRIBUTORS);
+        final var elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+
+        // then
+        VavrAssertions.assertThat(result).isRight();
+        assertThat(elapsed).isLessThan(Duration.ofMillis(SLOW_CALL_MILLIS));
+        assertThat(slowCalls.get()).isEqualTo(2);
+        assertThat(count("sent")).isEqualTo(1);
+        assertThat(count("won")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotHedgeBeforeUsualLatencyIsKnown() {
+        // when
+        final var result = httpClient.fetchPage(url("/slow"), PageDecoder.CONTRIBUTORS);
+
+        // then
+        VavrAssertions.assertThat(result).isRight();
+        assertThat(slowCalls.get()).isEqualTo(1);
+        assertThat(count("sent")).isZero();
+    }
+
+    @Test
+    void shouldLearnRateLimitFromAnswerOfLoser() throws InterruptedException {
+        // given
+        for (int i = 0; i < 100; i++) {
+            httpClient.fetchPage(url("/fast/" + i), PageDecoder.CONTRIBUTORS);
+        }
+
+        // when
+        httpClient.fetchPage(url("/slow"), PageDecoder.CONTRIBUTORS);
+
+        // then
+        final var deadline = System.nanoTime() + Duration.ofMillis(SLOW_CALL_MILLIS * 2).toNanos();
+        while (rateLimitScheduler.getStats().getRemaining() < 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(rateLimitScheduler.getStats().getRemaining()).isEqualTo(100);
+    }
+
+    private String url(final String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private double count(final String result) {
+        final Counter counter = meterRegistry.find("github.hedges").tags("result", result).counter();
+
+        return counter == null ? 0 : counter.count();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            // Only the slow call tells about the rate limit, and only after the duplicate won
+            if (exchange.getRequestURI().getPath().equals("/slow") && slowCalls.incrementAndGet() == 1) {
+                Thread.sleep(SLOW_CALL_MILLIS);
+                exchange.getResponseHeaders().set("X-RateLimit-Limit", "5000");
+                exchange.getResponseHeaders().set("X-RateLimit-Remaining", "100");
+                exchange.getResponseHeaders().set("X-RateLimit-Reset",
+                        String.valueOf(Instant.now().plusSeconds(600).getEpochSecond()));
+            }
+
+            final var bytes = "[]".getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}